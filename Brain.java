@@ -1,8 +1,8 @@
 package eureka;
 
-import java.util.Observable;
-import java.util.Observer;
 import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 
 import robocode.util.Utils;
 import eureka.Eureka;
@@ -13,10 +13,35 @@ import eureka.config.*;
 /**
  * The brain - home of the rational agent.
  */
-public class Brain extends Observable implements Observer {
+public class Brain {
     private final Eureka m_eureka;
     private Memory<Parameter> m_memory;
     private final boolean m_isTraining;
+    private final SignalBus m_bus;
+    private final Trace m_trace;
+    private final Brain.Move m_move;
+    private final Brain.Stop m_stop;
+    private final Brain.Scan m_scan;
+    private final ArrayList<Component> m_components;
+    private final ArrayDeque<Signal> m_perceptions;
+    private final TickStatistics m_statistics;
+    private final Budget m_budget;
+    private final Telemetry m_telemetry;
+
+    /**
+     * The computation time of a tick in nanoseconds, which is shared between the components.
+     */
+    public final long TickBudget;
+
+    /**
+     * The share of the CPU constant used as budget of a tick, leaving the rest for Robocode and the garbage collector.
+     */
+    public final static double TICK_BUDGET_SHARE = 0.5;
+
+    // The intentions collected while sensing the current tick
+    private final Policy.Situation m_situation;
+    private final Policy m_policy;
+    private boolean m_scanRequested;
 
     /**
      * The name of the file, which is used to serialize the settings memory.
@@ -102,21 +127,63 @@ public class Brain extends Observable implements Observer {
         }
     }
 
+    /**
+     * The memory of parameters as loaded at the beginning of the battle.
+     */
+    private static class LoadedMemory {
+        private final Memory<Parameter> m_memory;
+        private final boolean m_isTraining;
+
+        /**
+         * Loads the training memory, if possible, or the serialized settings otherwise.
+         * @param directory The data directory.
+         */
+        public LoadedMemory(final File directory) {
+            Memory<Parameter> memory;
+            if ((memory = Memory.load(new File(directory, Brain.TRAINING_FILENAME))) != null) {
+                this.m_isTraining = true;
+            } else if ((memory = Memory.load(new File(directory, Brain.CONFIG_FILENAME))) == null) {
+                this.m_isTraining = false;
+                memory = new Memory<Parameter>();
+            } else {
+                this.m_isTraining = false;
+            }
+            this.m_memory = memory;
+        }
+    }
+
     /**
      * Initialize the new AI.
      */
     public Brain(final Eureka eureka) {
         this.m_eureka = eureka;
 
-        // Load training memory, if possible, or the serialized settings otherwise.
-        if ((this.m_memory = Memory.load(new File(eureka.getDataDirectory(), Brain.TRAINING_FILENAME))) != null) {
-            this.m_isTraining = true;
-        } else if ((this.m_memory = Memory.load(new File(eureka.getDataDirectory(), Brain.CONFIG_FILENAME))) == null) {
-            this.m_isTraining = false;
-            this.m_memory = new Memory<Parameter>();
-        } else {
-            this.m_isTraining = false;
-        }
+        // Load the memory only in the first round of the battle.
+        final LoadedMemory loaded = BattleCache.get("Brain/Memory", () -> new LoadedMemory(eureka.getDataDirectory()));
+        this.m_memory = loaded.m_memory;
+        this.m_isTraining = loaded.m_isTraining;
+
+        this.m_trace = new Trace(Trace.Level.fromValue(this.accessMemory("Brain/TraceLevel", new Constant(0))),
+                Trace.CAPACITY);
+
+        // The commands without parameters are reused
+        this.m_bus = new SignalBus();
+        this.m_move = new Brain.Move();
+        this.m_stop = new Brain.Stop();
+        this.m_scan = new Brain.Scan();
+
+        this.m_components = new ArrayList<Component>();
+        this.m_perceptions = new ArrayDeque<Signal>(32);
+        this.m_statistics = new TickStatistics();
+        this.m_budget = new Budget();
+        this.m_telemetry = BattleCache.get("Brain/Telemetry", () -> new Telemetry());
+
+        // The budget is derived from the time Robocode allows for a turn, unless it is configured in microseconds
+        final double tickBudget = this.accessMemory("Brain/TickBudget", new Constant(0));
+        this.TickBudget = tickBudget > 0 ? (long) (tickBudget * 1000)
+                : (long) (eureka.getCpuConstant() * TICK_BUDGET_SHARE);
+        this.m_situation = new Policy.Situation();
+        this.m_policy = this.createPolicy();
     }
 
     /**
@@ -138,10 +205,155 @@ public class Brain extends Observable implements Observer {
     }
 
     /**
-     * Start the AI.
+     * Returns the trace of the transmitted signals, which might be dumped on demand.
+     * @return the trace.
+     */
+    public Trace getTrace() {
+        return this.m_trace;
+    }
+
+    /**
+     * Subscribes a handler for a specific type of signals.
+     * @param type The type of the signal, including its subtypes.
+     * @param handler The handler.
+     */
+    public <T extends Signal> void subscribe(final Class<T> type, final SignalBus.Listener<? super T> handler) {
+        this.m_bus.subscribe(type, handler);
+    }
+
+    /**
+     * Attaches a component, which takes part in the planning of each tick.
+     * @param component The component.
+     */
+    public void attach(final Component component) {
+        this.m_components.add(component);
+    }
+
+    /**
+     * Returns the timing telemetry, collected over the whole battle.
+     * @return the telemetry.
+     */
+    public Telemetry getTelemetry() {
+        return this.m_telemetry;
+    }
+
+    /**
+     * Returns the statistics about the ticks processed in this round.
+     * @return the statistics.
+     */
+    public TickStatistics getStatistics() {
+        return this.m_statistics;
+    }
+
+    /**
+     * Start the AI and run it tick by tick until the end of the round.
      */
     public void life() {
-        this.sendSignal(new Brain.Scan());
+        // Register the reactions after the components, such that they have already processed the signals.
+        this.m_bus.subscribe(Leg.MovementDone.class, this::handleOperationDone);
+        this.m_bus.subscribe(Fist.BulletFired.class, this::handleOperationDone);
+        this.m_bus.subscribe(Fist.AimAborted.class, this::handleAimAborted);
+        this.m_bus.subscribe(Eye.RobotNearby.class, this::handleRobotNearby);
+        this.m_bus.subscribe(Eye.ScanningComplete.class, this::handleScanningComplete);
+        this.m_bus.subscribe(Leg.RobotHit.class, this::handleRobotHit);
+        this.m_bus.subscribe(Eureka.RoundEnded.class, this::handleRoundEnded);
+        this.m_bus.subscribe(Eureka.BattleEnded.class, this::handleBattleEnded);
+
+        this.m_scanRequested = true;
+        while (true) {
+            this.tick();
+        }
+    }
+
+    /**
+     * Processes a single tick: Senses all perceptions, plans and acts exactly once.
+     */
+    private void tick() {
+        final long deadline = System.nanoTime() + this.TickBudget;
+        this.m_statistics.tick(this.m_eureka.getTime());
+
+        // Sense: Update the world model with all perceptions of this tick
+        while (!this.m_perceptions.isEmpty()) {
+            this.sendSignal(this.m_perceptions.poll());
+        }
+        this.m_eureka.releaseSignals();
+
+        // Plan: Decide about the collected intentions and let the components plan in their share of the time left
+        this.plan();
+        for (int i = 0; i < this.m_components.size(); i++) {
+            final long remaining = Math.max(0, deadline - System.nanoTime());
+            this.m_components.get(i).runPlan(this.m_budget.start(remaining / (this.m_components.size() - i)));
+        }
+
+        // Act: Execute all commands at once
+        this.m_statistics.executed();
+        this.m_eureka.execute();
+    }
+
+    /**
+     * Creates the policy configured by 'Brain/Policy': The reactive one (0) or the learning one (1), whose learned
+     * values are kept over the whole battle.
+     * @return the policy.
+     */
+    private Policy createPolicy() {
+        if (this.accessMemory("Brain/Policy", new Constant(0)) == 0) {
+            return new ReactivePolicy();
+        }
+
+        final double learningRate = this.accessMemory("Policy/LearningRate", new Constant(0.1));
+        final double discount = this.accessMemory("Policy/Discount", new Constant(0.9));
+        final double exploration = this.accessMemory("Policy/Exploration", new Constant(0.05));
+        return BattleCache.get("Brain/Policy", () -> new QLearningPolicy(
+                QLearningPolicy.load(new File(this.m_eureka.getDataDirectory(), QLearningPolicy.FILENAME)),
+                learningRate, discount, exploration));
+    }
+
+    /**
+     * Sends the commands the policy decided upon the intentions collected in this tick.
+     */
+    private void plan() {
+        if (this.m_scanRequested) {
+            this.sendSignal(this.m_scan);
+            this.m_scanRequested = false;
+        }
+        if (!this.m_situation.isDecisionRequired()) {
+            return;
+        }
+
+        // Decide and forget the intentions, new ones are collected for the next tick
+        this.m_situation.sense(this.m_eureka, this.getNearestEnemy());
+        final int actions = this.m_policy.decide(this.m_situation);
+        final Enemy target = this.m_situation.getTarget() != null ? this.m_situation.getTarget()
+                : this.m_situation.getNearest();
+        double fireAngle = this.m_situation.getFireAngle();
+        if (Double.isNaN(fireAngle) && target != null) {
+            fireAngle = Utils.normalRelativeAngle(this.m_eureka.getHeadingRadians()
+                    - this.m_eureka.getGunHeadingRadians() + Math.toRadians(target.lastContact().getBearing()));
+        }
+        this.m_situation.clear();
+
+        if ((actions & (Policy.STOP | Policy.ATTACK)) != 0) {
+            this.sendSignal(this.m_stop);
+        }
+        if ((actions & Policy.ATTACK) != 0 && target != null) {
+            this.sendSignal(new Brain.Attack(target));
+        }
+        if ((actions & Policy.FIRE) != 0 && !Double.isNaN(fireAngle)) {
+            this.sendSignal(new Brain.Fire(fireAngle, 3));
+        }
+        if ((actions & Policy.MOVE) != 0) {
+            this.sendSignal(this.m_move);
+        }
+    }
+
+    /**
+     * Returns the nearest enemy with up-to-date information.
+     * @return the enemy or 'null'.
+     */
+    private Enemy getNearestEnemy() {
+        final EnemySnapshot enemies = this.m_eureka.getEye().getSnapshot();
+        final int nearest = enemies.findNearest(this.m_eureka.getX(), this.m_eureka.getY());
+        return nearest >= 0 ? enemies.getEnemy(nearest) : null;
     }
 
     /**
@@ -149,53 +361,130 @@ public class Brain extends Observable implements Observer {
      * @param signal The signal which is to be transmitted.
      */
     private void sendSignal(final Signal signal) {
+        if (this.m_trace.isEnabled(Trace.Level.Commands)) {
+            this.trace(signal);
+        }
+
+        // Measure the dispatch, including all signals sent in reaction
+        final long start = System.nanoTime();
+        this.m_bus.publish(signal);
+        this.m_telemetry.getHistogram(signal.getClass()).add(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a signal in the trace.
+     * @param signal The signal.
+     */
+    private void trace(final Signal signal) {
         if (signal instanceof Signal.Command) {
-            this.m_eureka.out.format("[Command] %s\n", signal.getClass().getSimpleName());
+            this.m_trace.record(this.m_eureka.getTime(), Trace.Level.Commands, signal.getClass());
         } else if (signal instanceof Signal.CustomEvent) {
-            this.m_eureka.out.format("[Custom Event] %s\n",
-                    ((Signal.CustomEvent) signal).getCondition().getClass().getSimpleName());
+            this.m_trace.record(this.m_eureka.getTime(), Trace.Level.CustomEvents,
+                    ((Signal.CustomEvent) signal).getCondition().getClass());
         } else if (signal instanceof Signal.Event) {
-            this.m_eureka.out.format("[Event] %s\n", signal.getClass().getSimpleName());
+            this.m_trace.record(this.m_eureka.getTime(), Trace.Level.Events, signal.getClass());
         }
+    }
+
+    /**
+     * Receives a perception of the robot, which is processed together with the others at the next tick.
+     * @param signal The signal.
+     */
+    public void perceive(final Signal signal) {
+        this.m_perceptions.add(signal);
+    }
+
+    /**
+     * Notes a turn skipped by the engine.
+     */
+    public void skipTurn() {
+        this.m_statistics.skipped();
+    }
+
+    /**
+     * Receives a signal from the robot or one of its components and transmits it immediately towards the other
+     * components.
+     * @param signal The signal.
+     */
+    public void update(final Signal signal) {
+        this.sendSignal(signal);
+    }
 
-        this.setChanged();
-        this.notifyObservers(signal);
+    /**
+     * Moves forward after the end of a operation.
+     */
+    private void handleOperationDone(final Signal.Event event) {
+        this.m_situation.requestMove();
     }
 
-    @Override
-    public void update(Observable o, Object arg) {
-        if (!(arg instanceof Signal)) {
-            throw new IllegalArgumentException("Signal expected");
+    /**
+     * Moves forward after an aborted aiming, if the gun is not in use.
+     */
+    private void handleAimAborted(final Fist.AimAborted event) {
+        if (!this.m_eureka.getFist().isBusy()) {
+            this.m_situation.requestMove();
         }
+    }
+
+    /**
+     * Attacks the nearest robot nearby.
+     */
+    private void handleRobotNearby(final Eye.RobotNearby event) {
+        this.m_situation.offerTarget(event.getRobot());
+    }
 
-        // Transmit the signal towards the other components.
-        this.sendSignal((Signal) arg);
+    /**
+     * Continuos scanning after end and move if it was the first one at the beginning.
+     */
+    private void handleScanningComplete(final Eye.ScanningComplete event) {
+        this.m_scanRequested = true;
+        this.m_situation.requestMoveIfIdle();
+    }
 
-        if (((arg instanceof Leg.MovementDone) || (arg instanceof Fist.BulletFired))
-                || (arg instanceof Fist.AimAborted) && !this.m_eureka.getFist().isBusy()) {
-            // Move forward after the end of a operation
-            this.sendSignal(new Brain.Move());
-            this.m_eureka.execute();
-        } else if (arg instanceof Eye.RobotNearby && !this.m_eureka.getFist().isBusy()) {
-            // Attack a robot nearby.
-            this.sendSignal(new Brain.Stop());
-            this.sendSignal(new Brain.Attack(((Eye.RobotNearby) arg).getRobot()));
-            this.m_eureka.execute();
-        } else if (arg instanceof Eye.ScanningComplete) {
-            // Continuos scanning after end and move if it was the first one at the beginning.
-            this.sendSignal(new Brain.Scan());
-            if (!this.m_eureka.getLeg().isBusy()) {
-                this.sendSignal(new Brain.Move());
-            }
-            this.m_eureka.execute();
-        } else if (arg instanceof Leg.RobotHit) {
-            // Fires in direction of a hitting robot
-            double angle = Utils.normalRelativeAngle(this.m_eureka.getHeadingRadians()
-                    - this.m_eureka.getGunHeadingRadians() + ((Leg.RobotHit) arg).getBearing());
-            this.sendSignal(new Brain.Fire(angle, 3));
-            this.m_eureka.execute();
-        } else if (arg instanceof Eureka.BattleEnded && !this.isTraining()) {
-            // Save or overwrite the settings, if not in training.
+    /**
+     * Fires in direction of a hitting robot.
+     */
+    private void handleRobotHit(final Leg.RobotHit event) {
+        this.m_situation.requestFire(Utils.normalRelativeAngle(
+                this.m_eureka.getHeadingRadians() - this.m_eureka.getGunHeadingRadians() + event.getBearing()));
+    }
+
+    /**
+     * Dumps the trace and the statistics of the round and saves the telemetry.
+     */
+    private void handleRoundEnded(final Eureka.RoundEnded event) {
+        this.m_trace.dump(this.m_eureka.out);
+        this.m_eureka.out.format("[INFO] Round ended (%s)\n", this.m_statistics);
+        this.m_telemetry.addRound(this.m_statistics);
+        this.saveTelemetry();
+
+        // Let the policy learn from the outcome of the round
+        this.m_situation.sense(this.m_eureka, null);
+        this.m_policy.endRound(this.m_situation);
+    }
+
+    /**
+     * Saves the telemetry of the battle so far.
+     */
+    private void saveTelemetry() {
+        try {
+            this.m_telemetry.save(new File(this.m_eureka.getDataDirectory(), Telemetry.FILENAME));
+        } catch (Exception ex) {
+            this.m_eureka.out.println("[ERROR] Saving failed");
+        }
+    }
+
+    /**
+     * Save or overwrite the settings, if not in training, the final telemetry and the learned policy.
+     */
+    private void handleBattleEnded(final Eureka.BattleEnded event) {
+        this.saveTelemetry();
+        try {
+            this.m_policy.save(this.m_eureka.getDataDirectory());
+        } catch (Exception ex) {
+            this.m_eureka.out.println("[ERROR] Saving failed");
+        }
+        if (!this.isTraining()) {
             try {
                 this.m_memory.save(new File(this.m_eureka.getDataDirectory(), Brain.CONFIG_FILENAME));
             } catch (Exception ex) {
@@ -203,4 +492,4 @@ public class Brain extends Observable implements Observer {
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,19 @@
 package eureka;
 
 import java.awt.geom.Point2D;
-import java.util.Observable;
 import java.awt.Color;
 import java.awt.Graphics2D;
 
 import robocode.*;
 
 import eureka.components.*;
+import eureka.config.BattleCache;
+import eureka.config.Constant;
+import eureka.helper.BulletLedger;
 import eureka.helper.Enemy;
+import eureka.helper.Recorder;
 import eureka.helper.Signal;
+import eureka.helper.SignalPool;
 
 /**
  * Eureka - a robot by Christopher Gundler.
@@ -72,13 +76,53 @@ public class Eureka extends AdvancedRobot {
 	private Leg m_leg;
 	private Fist m_fist;
 	private Brain m_brain;
+	private Recorder m_recorder;
+
+	/**
+	 * The name of the file the battle is recorded to, if enabled.
+	 */
+	public final static String RECORDING_FILENAME = "battle.rec";
+
+	/**
+	 * The time in milliseconds, for which the CPU constant is estimated once per battle in slices of one millisecond.
+	 */
+	public final static int CPU_TEST_MILLIS = 10;
+
+	/**
+	 * The number of cycles Robocode allows per turn, in units of its benchmark workload.
+	 */
+	private final static int CPU_CYCLES_ALLOWED = 6250;
+
+	private final SignalPool<Eye.RobotFound> m_robotFound = new SignalPool<Eye.RobotFound>(() -> new Eye.RobotFound(null));
+	private final SignalPool<Signal.CustomEvent> m_customEvent = new SignalPool<Signal.CustomEvent>(
+			() -> new Signal.CustomEvent(null));
 
 	/**
 	 * Runs the robot.
 	 */
 	public void run() {
+		// Keep the loaded state of the previous rounds, as long as the battle is the same
+		BattleCache.enterRound(this.getDataDirectory(), this.getRoundNum(), this.getNumRounds());
+
 		this.m_brain = new Brain(this);
 
+		// Record the battle for a later replay, if enabled
+		if (this.m_brain.accessMemory("Eureka/Record", new Constant(0)) != 0) {
+			try {
+				this.m_recorder = BattleCache.get("Eureka/Recorder", () -> {
+					try {
+						return new Recorder(new RobocodeFileOutputStream(this.getDataFile(Eureka.RECORDING_FILENAME)),
+								this.getDataQuotaAvailable(), this.getBattleFieldWidth(), this.getBattleFieldHeight(),
+								this.getNumRounds());
+					} catch (java.io.IOException ex) {
+						throw new IllegalArgumentException("Recording failed");
+					}
+				});
+			} catch (IllegalArgumentException ex) {
+				this.out.println("[ERROR] Recording failed");
+			}
+		}
+
 		this.m_eye = new Eye(this);
 		this.m_leg = new Leg(this);
 		this.m_fist = new Fist(this);
@@ -101,39 +145,96 @@ public class Eureka extends AdvancedRobot {
 		this.m_fist.drawDebug(g);
 	}
 
+	@Override
+	public void onStatus(StatusEvent e) {
+		if (this.m_recorder != null) {
+			this.m_recorder.status(e.getStatus());
+		}
+	}
+
 	@Override
 	public void onScannedRobot(ScannedRobotEvent e) {
-		this.m_brain.update(null, new Eye.RobotFound(e));
+		if (this.m_recorder != null) {
+			this.m_recorder.scannedRobot(e);
+		}
+		this.m_brain.perceive(this.m_robotFound.obtain().reset(e));
 	}
 
 	@Override
 	public void onHitRobot(HitRobotEvent e) {
-		this.m_brain.update(null, new Leg.RobotHit(e));
+		if (this.m_recorder != null) {
+			this.m_recorder.hitRobot(e);
+		}
+		this.m_brain.perceive(new Leg.RobotHit(e));
+	}
+
+	@Override
+	public void onHitByBullet(HitByBulletEvent e) {
+		this.m_brain.perceive(new Leg.HitByBullet(e));
+	}
+
+	@Override
+	public void onBulletHit(BulletHitEvent e) {
+		this.m_brain.perceive(new Fist.BulletDone(e.getBullet(), BulletLedger.HIT, e.getName()));
+	}
+
+	@Override
+	public void onBulletMissed(BulletMissedEvent e) {
+		this.m_brain.perceive(new Fist.BulletDone(e.getBullet(), BulletLedger.MISSED, null));
+	}
+
+	@Override
+	public void onBulletHitBullet(BulletHitBulletEvent e) {
+		this.m_brain.perceive(new Fist.BulletDone(e.getBullet(), BulletLedger.DESTROYED, null));
 	}
 
 	@Override
 	public void onCustomEvent(CustomEvent event) {
-		this.m_brain.update(null, new Signal.CustomEvent(event.getCondition()));
+		if (this.m_recorder != null) {
+			this.m_recorder.customEvent(event.getCondition());
+		}
+		this.m_brain.perceive(this.m_customEvent.obtain().reset(event.getCondition()));
 	}
 
 	@Override
 	public void onBattleEnded(BattleEndedEvent event) {
-		this.m_brain.update(null, new Eureka.BattleEnded());
+		if (this.m_recorder != null) {
+			this.m_recorder.battleEnded();
+		}
+		this.m_brain.update(new Eureka.BattleEnded());
 	}
 
 	@Override
 	public void onRoundEnded(RoundEndedEvent event) {
-		this.m_brain.update(null, new Eureka.RoundEnded(event.getTurns()));
+		if (this.m_recorder != null) {
+			this.m_recorder.roundEnded(event);
+		}
+		this.m_brain.update(new Eureka.RoundEnded(event.getTurns()));
 	}
 
 	@Override
 	public void onRobotDeath(RobotDeathEvent event) {
-		this.m_brain.update(null, new Eureka.EnemyDied(event));
+		if (this.m_recorder != null) {
+			this.m_recorder.robotDeath(event);
+		}
+		this.m_brain.perceive(new Eureka.EnemyDied(event));
 	}
 
 	@Override
 	public void onSkippedTurn(SkippedTurnEvent event) {
+		if (this.m_recorder != null) {
+			this.m_recorder.skippedTurn(event);
+		}
 		this.out.println("[INFO] Turn skipped!");
+		this.m_brain.skipTurn();
+	}
+
+	/**
+	 * Gives the signals of the processed perceptions back to their pools.
+	 */
+	void releaseSignals() {
+		this.m_robotFound.releaseAll();
+		this.m_customEvent.releaseAll();
 	}
 
 	/**
@@ -167,4 +268,29 @@ public class Eureka extends AdvancedRobot {
 	public Brain getBrain() {
 		return this.m_brain;
 	}
+
+	/**
+	 * Returns the CPU constant, i.e. the time of a turn before Robocode skips it. As it is not available to robots, it
+	 * is estimated with the benchmark Robocode calculates it with, though in a much shorter time.
+	 * @return the CPU constant in nanoseconds.
+	 */
+	public long getCpuConstant() {
+		return BattleCache.get("Eureka/CpuConstant", () -> {
+			// Measure in slices and keep the fastest one, as the first ones are slowed down by the compilation
+			double fastest = Double.POSITIVE_INFINITY, sum = 0;
+			for (int slice = 0; slice < CPU_TEST_MILLIS; slice++) {
+				long count = 0;
+				final long start = System.nanoTime(), end = start + 1000000L;
+				while (System.nanoTime() < end) {
+					sum += Math.hypot(Math.sqrt(Math.abs(Math.log(Math.atan(Math.random())))),
+							Math.cbrt(Math.abs(Math.random() * 10))) / Math.exp(Math.random());
+					count++;
+				}
+				fastest = Math.min(fastest, (System.nanoTime() - start) / (double) Math.max(1, count));
+			}
+
+			// The sum is used, such that the workload is not optimized away
+			return (long) (fastest * CPU_CYCLES_ALLOWED) + (sum < 0 ? 1 : 0);
+		});
+	}
 }
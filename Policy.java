@@ -0,0 +1,222 @@
+package eureka;
+
+import java.io.File;
+import java.io.IOException;
+
+import eureka.helper.Enemy;
+
+/**
+ * A policy deciding about the commands of the brain in a situation.
+ */
+public interface Policy {
+
+    /**
+     * The actions a policy may decide, combined as bits.
+     */
+    public final static int IDLE = 0, MOVE = 1, ATTACK = 2, FIRE = 4, STOP = 8;
+
+    /**
+     * The situation of the robot at a decision: The intentions collected from the events of the tick and the
+     * sensed state. The instance is reused for every decision.
+     */
+    public static class Situation {
+        private Enemy m_target, m_nearest;
+        private boolean m_decision, m_moveRequested, m_moveIfIdle;
+        private boolean m_legBusy, m_fistBusy, m_eyeBusy;
+        private double m_fireAngle, m_energy, m_gunHeat, m_threshold;
+        private int m_others;
+
+        /**
+         * Creates an empty situation.
+         */
+        public Situation() {
+            this.clear();
+        }
+
+        /**
+         * Requests a movement, i.e. after the end of an operation.
+         */
+        public void requestMove() {
+            this.m_decision = true;
+            this.m_moveRequested = true;
+        }
+
+        /**
+         * Requests a movement, if the leg is not in use.
+         */
+        public void requestMoveIfIdle() {
+            this.m_decision = true;
+            this.m_moveIfIdle = true;
+        }
+
+        /**
+         * Offers an enemy nearby as target, the nearest one of a tick is kept.
+         * @param enemy The enemy.
+         */
+        public void offerTarget(final Enemy enemy) {
+            this.m_decision = true;
+            if (this.m_target == null || enemy.lastContact().getDistance() < this.m_target.lastContact().getDistance()) {
+                this.m_target = enemy;
+            }
+        }
+
+        /**
+         * Requests firing into a direction.
+         * @param angle The rotation of the gun.
+         */
+        public void requestFire(final double angle) {
+            this.m_decision = true;
+            this.m_fireAngle = angle;
+        }
+
+        /**
+         * Senses the state of the robot.
+         * @param eureka The robot.
+         * @param nearest The nearest current enemy or 'null'.
+         */
+        public void sense(final Eureka eureka, final Enemy nearest) {
+            this.m_nearest = nearest;
+            this.m_energy = eureka.getEnergy();
+            this.m_gunHeat = eureka.getGunHeat();
+            this.m_others = eureka.getOthers();
+            this.m_threshold = eureka.getEye().Threshold;
+            this.m_legBusy = eureka.getLeg().isBusy();
+            this.m_fistBusy = eureka.getFist().isBusy();
+            this.m_eyeBusy = eureka.getEye().isBusy();
+        }
+
+        /**
+         * Forgets all intentions.
+         */
+        public void clear() {
+            this.m_target = null;
+            this.m_decision = false;
+            this.m_moveRequested = false;
+            this.m_moveIfIdle = false;
+            this.m_fireAngle = Double.NaN;
+        }
+
+        /**
+         * Checks if an event of this tick requires a decision.
+         * @return true, if a decision is required.
+         */
+        public boolean isDecisionRequired() {
+            return this.m_decision;
+        }
+
+        /**
+         * Returns the nearest enemy reported as nearby in this tick.
+         * @return the enemy or 'null'.
+         */
+        public Enemy getTarget() {
+            return this.m_target;
+        }
+
+        /**
+         * Returns the nearest current enemy.
+         * @return the enemy or 'null'.
+         */
+        public Enemy getNearest() {
+            return this.m_nearest;
+        }
+
+        /**
+         * Checks if a movement was requested.
+         * @return true, if requested.
+         */
+        public boolean isMoveRequested() {
+            return this.m_moveRequested;
+        }
+
+        /**
+         * Checks if a movement was requested, if the leg is not in use.
+         * @return true, if requested.
+         */
+        public boolean isMoveIfIdleRequested() {
+            return this.m_moveIfIdle;
+        }
+
+        /**
+         * Returns the requested rotation of the gun for firing.
+         * @return the rotation or NaN, if not requested.
+         */
+        public double getFireAngle() {
+            return this.m_fireAngle;
+        }
+
+        /**
+         * Returns the energy of the robot.
+         * @return the energy.
+         */
+        public double getEnergy() {
+            return this.m_energy;
+        }
+
+        /**
+         * Returns the heat of the gun.
+         * @return the gun heat.
+         */
+        public double getGunHeat() {
+            return this.m_gunHeat;
+        }
+
+        /**
+         * Returns the number of other robots alive.
+         * @return the number of robots.
+         */
+        public int getOthers() {
+            return this.m_others;
+        }
+
+        /**
+         * Returns the distance in which a robot is classified as "nearby".
+         * @return the threshold.
+         */
+        public double getThreshold() {
+            return this.m_threshold;
+        }
+
+        /**
+         * Checks if the leg is in use.
+         * @return true, if busy.
+         */
+        public boolean isLegBusy() {
+            return this.m_legBusy;
+        }
+
+        /**
+         * Checks if the fist is in use.
+         * @return true, if busy.
+         */
+        public boolean isFistBusy() {
+            return this.m_fistBusy;
+        }
+
+        /**
+         * Checks if the eye is in use.
+         * @return true, if busy.
+         */
+        public boolean isEyeBusy() {
+            return this.m_eyeBusy;
+        }
+    }
+
+    /**
+     * Decides about the actions in a situation.
+     * @param situation The situation.
+     * @return the actions as combination of bits.
+     */
+    public int decide(Situation situation);
+
+    /**
+     * Notifies the policy about the end of a round.
+     * @param situation The final situation.
+     */
+    public void endRound(Situation situation);
+
+    /**
+     * Saves the learned data of the policy, if any.
+     * @param directory The data directory.
+     */
+    public void save(File directory) throws IOException;
+}
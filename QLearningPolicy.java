@@ -0,0 +1,215 @@
+package eureka;
+
+import java.io.*;
+
+import robocode.RobocodeFileOutputStream;
+import robocode.util.Utils;
+
+import eureka.helper.Enemy;
+
+/**
+ * A policy learning the value of its actions with tabular Q-learning.
+ * The situation is discretised into the distance of the nearest enemy, the ratio of the energies, the heat of the gun
+ * and the usage of the components; the values are kept in a primitive array, i.e. constant time per decision.
+ */
+public class QLearningPolicy implements Policy {
+
+    /**
+     * The name of the file, which contains the learned values.
+     */
+    public final static String FILENAME = "policy.dat";
+
+    /**
+     * The marker at the beginning of each valid file.
+     */
+    private final static int MAGIC = 0x45514C50;
+
+    /**
+     * The actions to learn.
+     */
+    final static int[] ACTIONS = { Policy.IDLE, Policy.MOVE, Policy.ATTACK, Policy.FIRE, Policy.STOP };
+
+    /**
+     * The number of discrete states: Distances, energy ratios, gun heat and usage of leg, fist and eye.
+     */
+    final static int DISTANCES = 4, ENERGIES = 3, STATES = DISTANCES * ENERGIES * 2 * 2 * 2 * 2;
+
+    /**
+     * The reward for an enemy died and for surviving a round.
+     */
+    final static double KILL_REWARD = 20, SURVIVAL_REWARD = 50;
+
+    private final float[] m_values;
+    private final double m_learningRate, m_discount, m_exploration;
+    private int m_lastState, m_lastAction, m_lastOthers;
+    private double m_lastEnergy;
+
+    /**
+     * Creates a new policy.
+     * @param values The learned values or 'null' to start from scratch.
+     * @param learningRate The rate of learning.
+     * @param discount The discount of future rewards.
+     * @param exploration The probability of a random action.
+     */
+    public QLearningPolicy(final float[] values, final double learningRate, final double discount,
+            final double exploration) {
+        this.m_values = values != null ? values : new float[STATES * ACTIONS.length];
+        this.m_learningRate = learningRate;
+        this.m_discount = discount;
+        this.m_exploration = exploration;
+        this.m_lastState = -1;
+    }
+
+    /**
+     * Tries to load the learned values.
+     * @param file The file.
+     * @return the values or 'null' on failure.
+     */
+    public static float[] load(final File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        // Guarantee closing of file by using try(closeable)
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != STATES || dis.readInt() != ACTIONS.length) {
+                return null;
+            }
+            final float[] values = new float[STATES * ACTIONS.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = dis.readFloat();
+            }
+            return values;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public void save(final File directory) throws IOException {
+        // Guarantee closing of file by using try(closeable)
+        try (RobocodeFileOutputStream fos = new RobocodeFileOutputStream(new File(directory, FILENAME));
+                DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(STATES);
+            dos.writeInt(ACTIONS.length);
+            for (float value : this.m_values) {
+                dos.writeFloat(value);
+            }
+        }
+    }
+
+    @Override
+    public int decide(final Situation situation) {
+        final int state = QLearningPolicy.getState(situation);
+        if (this.m_lastState >= 0) {
+            this.learn(this.getReward(situation), this.getBestValue(situation, state));
+        }
+
+        // Choose the best possible action or explore a random one
+        int action = -1;
+        if (Utils.getRandom().nextDouble() < this.m_exploration) {
+            action = Utils.getRandom().nextInt(ACTIONS.length);
+            action = QLearningPolicy.isPossible(situation, action) ? action : -1;
+        }
+        if (action < 0) {
+            for (int i = 0; i < ACTIONS.length; i++) {
+                if (QLearningPolicy.isPossible(situation, i) && (action < 0
+                        || this.m_values[state * ACTIONS.length + i] > this.m_values[state * ACTIONS.length + action])) {
+                    action = i;
+                }
+            }
+        }
+
+        this.m_lastState = state;
+        this.m_lastAction = action;
+        this.m_lastEnergy = situation.getEnergy();
+        this.m_lastOthers = situation.getOthers();
+        return ACTIONS[action];
+    }
+
+    @Override
+    public void endRound(final Situation situation) {
+        if (this.m_lastState >= 0) {
+            this.learn(this.getReward(situation) + (situation.getEnergy() > 0 ? SURVIVAL_REWARD : -SURVIVAL_REWARD), 0);
+        }
+        this.m_lastState = -1;
+    }
+
+    /**
+     * Updates the value of the last action.
+     * @param reward The reward received since the last action.
+     * @param future The value of the best action in the new state.
+     */
+    private void learn(final double reward, final double future) {
+        final int index = this.m_lastState * ACTIONS.length + this.m_lastAction;
+        this.m_values[index] += this.m_learningRate * (reward + this.m_discount * future - this.m_values[index]);
+    }
+
+    /**
+     * Returns the reward since the last decision: Own energy gained and enemies died.
+     * @param situation The current situation.
+     * @return the reward.
+     */
+    private double getReward(final Situation situation) {
+        return situation.getEnergy() - this.m_lastEnergy + KILL_REWARD * (this.m_lastOthers - situation.getOthers());
+    }
+
+    /**
+     * Returns the value of the best possible action.
+     * @param situation The situation.
+     * @param state The discrete state of the situation.
+     * @return the value.
+     */
+    private double getBestValue(final Situation situation, final int state) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < ACTIONS.length; i++) {
+            if (QLearningPolicy.isPossible(situation, i)) {
+                best = Math.max(best, this.m_values[state * ACTIONS.length + i]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Checks if an action is possible: Attacking requires an enemy, firing a cold gun and a direction.
+     * @param situation The situation.
+     * @param action The index of the action.
+     * @return true, if possible.
+     */
+    static boolean isPossible(final Situation situation, final int action) {
+        switch (ACTIONS[action]) {
+        case Policy.ATTACK:
+            return situation.getTarget() != null || situation.getNearest() != null;
+        case Policy.FIRE:
+            return situation.getGunHeat() == 0
+                    && (!Double.isNaN(situation.getFireAngle()) || situation.getNearest() != null);
+        default:
+            return true;
+        }
+    }
+
+    /**
+     * Discretises a situation.
+     * @param situation The situation.
+     * @return the index of the state.
+     */
+    static int getState(final Situation situation) {
+        final Enemy nearest = situation.getNearest();
+        int distance = DISTANCES - 1, energy = 1;
+        if (nearest != null) {
+            final double d = nearest.lastContact().getDistance();
+            distance = d < situation.getThreshold() ? 0 : (d < 2 * situation.getThreshold() ? 1 : 2);
+            final double ratio = situation.getEnergy() / Math.max(0.1, nearest.lastContact().getEnergy());
+            energy = ratio < 0.5 ? 0 : (ratio < 1.5 ? 1 : 2);
+        }
+
+        int state = distance;
+        state = state * ENERGIES + energy;
+        state = state * 2 + (situation.getGunHeat() == 0 ? 0 : 1);
+        state = state * 2 + (situation.isLegBusy() ? 1 : 0);
+        state = state * 2 + (situation.isFistBusy() ? 1 : 0);
+        state = state * 2 + (situation.isEyeBusy() ? 1 : 0);
+        return state;
+    }
+}
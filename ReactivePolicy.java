@@ -0,0 +1,35 @@
+package eureka;
+
+import java.io.File;
+
+/**
+ * The fixed, hand-written policy: Attack robots nearby, fire back on collisions and move after each operation.
+ */
+public class ReactivePolicy implements Policy {
+
+    @Override
+    public int decide(final Situation situation) {
+        int actions = Policy.IDLE;
+        if (situation.getTarget() != null && !situation.isFistBusy()) {
+            // Attack a robot nearby.
+            actions |= Policy.ATTACK;
+        }
+        if (!Double.isNaN(situation.getFireAngle())) {
+            // Fires in direction of a hitting robot
+            actions |= Policy.FIRE;
+        }
+        if (situation.isMoveRequested() || (situation.isMoveIfIdleRequested() && !situation.isLegBusy())) {
+            // Move forward after the end of a operation
+            actions |= Policy.MOVE;
+        }
+        return actions;
+    }
+
+    @Override
+    public void endRound(final Situation situation) {
+    }
+
+    @Override
+    public void save(final File directory) {
+    }
+}
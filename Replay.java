@@ -0,0 +1,475 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+import robocode.*;
+import robocode.util.Utils;
+
+import eureka.*;
+import eureka.config.*;
+import eureka.helper.Recording;
+
+/**
+ * A harness to replay a recorded battle headless through Eureka, i.e. for profiling and regression tests.
+ * The robot is driven by the recorded events and states instead of the engine, while its commands are hashed.
+ * Replaying the same recording twice must result in the same hash.
+ */
+public class Replay extends Eureka {
+
+    /**
+     * Thrown out of 'execute' to end the run of a round.
+     */
+    private static class RoundOver extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * The seed of the random numbers, which makes the replay deterministic.
+     */
+    public final static long SEED = 42;
+
+    /**
+     * Plays a recording and drives the robot of the current round.
+     */
+    private static class Player implements Recording.Listener {
+        private final Recording m_recording;
+        private final File m_directory;
+        private final ArrayList<Condition> m_conditions;
+        private final double[] m_state, m_pendingState;
+        private Replay m_robot;
+        private long m_time, m_pendingTime;
+        private int m_others, m_pendingOthers, m_round;
+        private boolean m_pending, m_roundOver;
+        private long m_ticks, m_commands, m_hash;
+
+        /**
+         * Creates a new player.
+         * @param recording The recording.
+         * @param directory The data directory of the robot.
+         */
+        public Player(final Recording recording, final File directory) {
+            this.m_recording = recording;
+            this.m_directory = directory;
+            this.m_conditions = new ArrayList<Condition>();
+            this.m_state = new double[8];
+            this.m_pendingState = new double[8];
+            this.m_round = -1;
+            this.m_hash = 17;
+        }
+
+        /**
+         * Reads the recording until the first state of the next round.
+         * @return false, if the battle is over.
+         */
+        public boolean startRound() throws IOException {
+            this.m_pending = false;
+            this.m_roundOver = false;
+            this.m_conditions.clear();
+            while (!this.m_pending) {
+                if (!this.m_recording.next(this)) {
+                    return false;
+                }
+            }
+            this.applyPending();
+            return true;
+        }
+
+        /**
+         * Advances the robot by one tick, delivering the events of the tick.
+         */
+        public void advance() throws IOException {
+            if (this.m_pending) {
+                this.applyPending();
+            }
+            while (!this.m_pending && !this.m_roundOver) {
+                if (!this.m_recording.next(this)) {
+                    this.m_roundOver = true;
+                }
+            }
+            if (this.m_roundOver) {
+                throw new RoundOver();
+            }
+        }
+
+        /**
+         * Mixes a command of the robot into the hash.
+         * @param command The identifier of the command.
+         * @param value Its parameter.
+         */
+        public void command(final int command, final double value) {
+            this.m_commands++;
+            this.m_hash = (this.m_hash * 31 + command) * 31 + Double.doubleToLongBits(value);
+        }
+
+        /**
+         * Makes the state read last the current one.
+         */
+        private void applyPending() {
+            System.arraycopy(this.m_pendingState, 0, this.m_state, 0, this.m_state.length);
+            this.m_time = this.m_pendingTime;
+            this.m_others = this.m_pendingOthers;
+            this.m_pending = false;
+            this.m_ticks++;
+        }
+
+        public void round(final int round) {
+            this.m_round = round;
+        }
+
+        public void status(final long time, final int others, final double[] state) {
+            System.arraycopy(state, 0, this.m_pendingState, 0, state.length);
+            this.m_pendingTime = time;
+            this.m_pendingOthers = others;
+            this.m_pending = true;
+        }
+
+        public void scannedRobot(final String name, final double[] scanned) {
+            this.m_robot.onScannedRobot(
+                    new ScannedRobotEvent(name, scanned[0], scanned[1], scanned[2], scanned[3], scanned[4], false));
+        }
+
+        public void hitRobot(final String name, final double bearingRadians, final double energy,
+                final boolean atFault) {
+            this.m_robot.onHitRobot(new HitRobotEvent(name, bearingRadians, energy, atFault));
+        }
+
+        public void robotDeath(final String name) {
+            this.m_robot.onRobotDeath(new RobotDeathEvent(name));
+        }
+
+        public void customEvent(final String conditionType) {
+            // Deliver the event to the first active condition of the same type
+            for (Condition condition : this.m_conditions) {
+                if (condition.getClass().getName().equals(conditionType)) {
+                    this.m_robot.onCustomEvent(new CustomEvent(condition));
+                    return;
+                }
+            }
+        }
+
+        public void skippedTurn(final long turn) {
+            this.m_robot.onSkippedTurn(new SkippedTurnEvent(turn));
+        }
+
+        public void roundEnded(final int round, final int turns, final int totalTurns) {
+            this.m_robot.onRoundEnded(new RoundEndedEvent(round, turns, totalTurns));
+            this.m_roundOver = true;
+        }
+
+        public void battleEnded() {
+            if (this.m_robot != null) {
+                this.m_robot.onBattleEnded(new BattleEndedEvent(false, null));
+            }
+        }
+    }
+
+    private final Player m_player;
+
+    /**
+     * Creates the robot for a round.
+     * @param player The player of the recording.
+     */
+    private Replay(final Player player) {
+        this.m_player = player;
+        this.out = System.out;
+    }
+
+    @Override
+    public void execute() {
+        try {
+            this.m_player.advance();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public double getX() {
+        return this.m_player.m_state[0];
+    }
+
+    @Override
+    public double getY() {
+        return this.m_player.m_state[1];
+    }
+
+    @Override
+    public double getHeading() {
+        return this.m_player.m_state[2];
+    }
+
+    @Override
+    public double getHeadingRadians() {
+        return Math.toRadians(this.getHeading());
+    }
+
+    @Override
+    public double getGunHeading() {
+        return this.m_player.m_state[3];
+    }
+
+    @Override
+    public double getGunHeadingRadians() {
+        return Math.toRadians(this.getGunHeading());
+    }
+
+    @Override
+    public double getRadarHeading() {
+        return this.m_player.m_state[4];
+    }
+
+    @Override
+    public double getRadarHeadingRadians() {
+        return Math.toRadians(this.getRadarHeading());
+    }
+
+    @Override
+    public double getVelocity() {
+        return this.m_player.m_state[5];
+    }
+
+    @Override
+    public double getEnergy() {
+        return this.m_player.m_state[6];
+    }
+
+    @Override
+    public double getGunHeat() {
+        return this.m_player.m_state[7];
+    }
+
+    @Override
+    public double getGunCoolingRate() {
+        return 0.1;
+    }
+
+    @Override
+    public long getTime() {
+        return this.m_player.m_time;
+    }
+
+    @Override
+    public int getOthers() {
+        return this.m_player.m_others;
+    }
+
+    @Override
+    public int getRoundNum() {
+        return this.m_player.m_round;
+    }
+
+    @Override
+    public int getNumRounds() {
+        return this.m_player.m_recording.getRounds();
+    }
+
+    @Override
+    public double getBattleFieldWidth() {
+        return this.m_player.m_recording.getBattleFieldWidth();
+    }
+
+    @Override
+    public double getBattleFieldHeight() {
+        return this.m_player.m_recording.getBattleFieldHeight();
+    }
+
+    @Override
+    public double getWidth() {
+        return 36;
+    }
+
+    @Override
+    public double getHeight() {
+        return 36;
+    }
+
+    @Override
+    public String getName() {
+        return "eureka.Eureka";
+    }
+
+    @Override
+    public File getDataDirectory() {
+        return this.m_player.m_directory;
+    }
+
+    @Override
+    public File getDataFile(final String filename) {
+        return new File(this.m_player.m_directory, filename);
+    }
+
+    @Override
+    public long getDataQuotaAvailable() {
+        return 200000;
+    }
+
+    @Override
+    public void addCustomEvent(final Condition condition) {
+        this.m_player.m_conditions.add(condition);
+    }
+
+    @Override
+    public void removeCustomEvent(final Condition condition) {
+        this.m_player.m_conditions.remove(condition);
+    }
+
+    @Override
+    public void setAdjustGunForRobotTurn(final boolean independent) {
+        this.m_player.command(1, independent ? 1 : 0);
+    }
+
+    @Override
+    public void setAdjustRadarForRobotTurn(final boolean independent) {
+        this.m_player.command(2, independent ? 1 : 0);
+    }
+
+    @Override
+    public void setAdjustRadarForGunTurn(final boolean independent) {
+        this.m_player.command(3, independent ? 1 : 0);
+    }
+
+    @Override
+    public void setAhead(final double distance) {
+        this.m_player.command(4, distance);
+    }
+
+    @Override
+    public void setBack(final double distance) {
+        this.m_player.command(4, -distance);
+    }
+
+    @Override
+    public void setTurnRight(final double degrees) {
+        this.m_player.command(5, Math.toRadians(degrees));
+    }
+
+    @Override
+    public void setTurnRightRadians(final double radians) {
+        this.m_player.command(5, radians);
+    }
+
+    @Override
+    public void setTurnGunRight(final double degrees) {
+        this.m_player.command(6, Math.toRadians(degrees));
+    }
+
+    @Override
+    public void setTurnGunRightRadians(final double radians) {
+        this.m_player.command(6, radians);
+    }
+
+    @Override
+    public void setTurnRadarRight(final double degrees) {
+        this.m_player.command(7, Math.toRadians(degrees));
+    }
+
+    @Override
+    public void setTurnRadarRightRadians(final double radians) {
+        this.m_player.command(7, radians);
+    }
+
+    @Override
+    public void setMaxVelocity(final double velocity) {
+        this.m_player.command(8, velocity);
+    }
+
+    @Override
+    public void setFire(final double power) {
+        this.m_player.command(9, power);
+    }
+
+    @Override
+    public Bullet setFireBullet(final double power) {
+        this.m_player.command(9, power);
+        return null;
+    }
+
+    @Override
+    public void fire(final double power) {
+        this.m_player.command(9, power);
+    }
+
+    @Override
+    public Bullet fireBullet(final double power) {
+        this.m_player.command(9, power);
+        return null;
+    }
+
+    @Override
+    public void stop() {
+        this.m_player.command(10, 0);
+    }
+
+    @Override
+    public void resume() {
+        this.m_player.command(11, 0);
+    }
+
+    /**
+     * Replays a whole recording.
+     * @param file The recording.
+     * @param directory The data directory of the robot.
+     * @return the player with the results.
+     */
+    private static Player replay(final File file, final File directory) throws IOException {
+        // Start each replay from the same state
+        BattleCache.invalidate();
+        Utils.getRandom().setSeed(Replay.SEED);
+
+        try (Recording recording = new Recording(new FileInputStream(file))) {
+            final Player player = new Player(recording, directory);
+            while (player.startRound()) {
+                player.m_robot = new Replay(player);
+                try {
+                    player.m_robot.run();
+                } catch (RoundOver ex) {
+                    // The round is over
+                }
+            }
+            return player;
+        }
+    }
+
+    /**
+     * Creates a data directory with a configuration independent of the wall clock, i.e. an unlimited tick budget.
+     * @return the directory.
+     */
+    private static File createDirectory() throws IOException {
+        final File directory = java.nio.file.Files.createTempDirectory("eureka").toFile();
+        final TreeMap<String, Parameter> config = new TreeMap<String, Parameter>();
+        config.put("Brain/TickBudget", new Constant(1e9));
+        config.put("Eureka/Record", new Constant(0));
+
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new FileOutputStream(new File(directory, Brain.CONFIG_FILENAME)))) {
+            oos.writeObject(config);
+        }
+        return directory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("USAGE: Replay recording [repetitions]");
+            return;
+        }
+
+        final File file = new File(args[0]);
+        final int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        Long hash = null;
+        for (int i = 0; i < repetitions; i++) {
+            final long start = System.nanoTime();
+            // A fresh directory each time, as the robot stores what it learned at the end of the battle
+            final Player player = replay(file, createDirectory());
+            final double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("[Replay] ticks: %d, commands: %d, hash: %016x, ticks/s: %.0f\n", player.m_ticks,
+                    player.m_commands, player.m_hash, player.m_ticks / seconds);
+            if (hash != null && hash != player.m_hash) {
+                System.err.println("[ERROR] Replay is not deterministic");
+                System.exit(1);
+            }
+            hash = player.m_hash;
+        }
+    }
+}
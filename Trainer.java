@@ -8,13 +8,16 @@ import robocode.control.*;
 import robocode.control.events.*;
 
 import eureka.*;
+import eureka.components.Fist;
 import eureka.config.*;
+import eureka.helper.BulletLedger;
 
 /**
  * An class to train a robot using a "supervised" training approach between battles.
  */
 public class Trainer {
     private static int optimalScore;
+    private static double optimalHitRate;
     private static Memory<Parameter> optimalMemory;
 
     /**
@@ -23,15 +26,18 @@ public class Trainer {
     public static class TrainingResult {
         private final Memory<Parameter> m_optimal;
         private final int m_score;
+        private final double m_hitRate;
 
         /**
          * Creates a new result.
          * @param memory The optimal parameter set.
          * @param score The total score.
+         * @param hitRate The rate of bullets hitting their target.
          */
-        public TrainingResult(final Memory<Parameter> memory, final int score) {
+        public TrainingResult(final Memory<Parameter> memory, final int score, final double hitRate) {
             this.m_optimal = memory;
             this.m_score = score;
+            this.m_hitRate = hitRate;
         }
 
         /**
@@ -42,6 +48,14 @@ public class Trainer {
             return this.m_score;
         }
 
+        /**
+         * Returns the rate of bullets hitting their target in the battle with the optimal parameters.
+         * @return the rate within [0, 1].
+         */
+        public double getHitRate() {
+            return this.m_hitRate;
+        }
+
         /**
          * Returns the optimal set of parameter.
          * @return the optimal set of parameter.
@@ -71,6 +85,7 @@ public class Trainer {
         // Clean up
         Trainer.optimalMemory = null;
         Trainer.optimalScore = 0;
+        Trainer.optimalHitRate = 0;
 
         // Generate all possible values and assign labels to them
         final Map<String, Parameter> parameterMap = defaultMemory.getMap();
@@ -93,6 +108,7 @@ public class Trainer {
         }
 
         final File trainingFile = createDataFilePath(robots[robotId], Brain.TRAINING_FILENAME);
+        final File statisticsFile = createDataFilePath(robots[robotId], Fist.STATISTICS_FILENAME);
         final BattleSpecification specification = new BattleSpecification(rounds, battlefield, robots);
 
         // Generate all valid parameter permutations and test them.
@@ -114,14 +130,20 @@ public class Trainer {
                 return;
             }
 
-            // Update optimal parameter, if found
+            // Update optimal parameter, if found. Equal scores are decided by the rate of hits in the battle.
+            final double[] shotsBefore = readShots(statisticsFile);
             IBattleListener listener = new BattleAdaptor() {
                 @Override
                 public void onBattleCompleted(BattleCompletedEvent event) {
                     // Update the best score, if possible
                     int score = (event.getIndexedResults()[robotId]).getScore();
-                    if (score > Trainer.optimalScore) {
+                    double[] shots = readShots(statisticsFile);
+                    double fired = shots[0] - shotsBefore[0];
+                    double hitRate = fired > 0 ? (shots[1] - shotsBefore[1]) / fired : 0;
+                    if (score > Trainer.optimalScore
+                            || (score == Trainer.optimalScore && hitRate > Trainer.optimalHitRate)) {
                         Trainer.optimalScore = score;
+                        Trainer.optimalHitRate = hitRate;
                         Trainer.optimalMemory = newMemory;
                     }
                 }
@@ -136,7 +158,22 @@ public class Trainer {
         // Update optimal Memory and clean up
         engine.close();
 
-        return new TrainingResult(Trainer.optimalMemory, Trainer.optimalScore);
+        return new TrainingResult(Trainer.optimalMemory, Trainer.optimalScore, Trainer.optimalHitRate);
+    }
+
+    /**
+     * Reads the total number of shots and hits of the robot over all battles from its statistics.
+     * @param file The statistics of the bullets.
+     * @return the number of shots and hits, zero if unknown.
+     */
+    private static double[] readShots(final File file) {
+        final ProfileStore statistics = ProfileStore.load(file, BulletLedger.FIELDS);
+        if (statistics == null || !statistics.contains(BulletLedger.TOTAL)) {
+            return new double[2];
+        }
+
+        final ProfileStore.Profile total = statistics.getProfile(BulletLedger.TOTAL);
+        return new double[] { total.get(BulletLedger.FIELD_SHOTS), total.get(BulletLedger.FIELD_HITS) };
     }
 
     /**
@@ -244,6 +281,7 @@ public class Trainer {
         Trainer.TrainingResult result = Trainer.optimize(args[1], parameters, Integer.parseInt(args[3]),
                 new robocode.control.BattlefieldSpecification(battlefieldWidth, battlefieldHeight), args[6], args[7]);
 
+        System.out.printf("Optimal score: %d (hit rate %.3f)\n", result.getScore(), result.getHitRate());
         try {
             result.getOptimalMemory().save(parameterFile);
         } catch (Exception e) {
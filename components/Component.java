@@ -1,21 +1,24 @@
 package eureka.components;
 
-import java.util.Observable;
-import java.util.Observer;
 import java.awt.Graphics2D;
 
 import robocode.*;
 
 import eureka.Eureka;
+import eureka.helper.Budget;
+import eureka.helper.Histogram;
 import eureka.helper.Signal;
+import eureka.helper.SignalBus;
+import eureka.helper.Telemetry;
 
 /**
  * An functional unit of 'Eureka', mimicking human anatomy.
  */
-public abstract class Component extends Observable implements Observer {
+public abstract class Component {
   protected final Eureka eureka;
 
   private robocode.Condition m_currentStatus;
+  private final Histogram m_commandTime, m_eventTime, m_operationDoneTime, m_planTime;
 
   /**
    * Initialize a unit and register it for event handling.
@@ -25,9 +28,17 @@ public abstract class Component extends Observable implements Observer {
     this.eureka = eureka;
     this.m_currentStatus = null;
 
+    // Prepare the histograms of the handlers
+    final Telemetry telemetry = eureka.getBrain().getTelemetry();
+    final String name = this.getClass().getSimpleName();
+    this.m_commandTime = telemetry.getHistogram(name + "/Command");
+    this.m_eventTime = telemetry.getHistogram(name + "/Event");
+    this.m_operationDoneTime = telemetry.getHistogram(name + "/OperationDone");
+    this.m_planTime = telemetry.getHistogram(name + "/Plan");
+
     // Add as part of the signal network
-    eureka.getBrain().addObserver(this);
-    this.addObserver(eureka.getBrain());
+    eureka.getBrain().attach(this);
+    eureka.getBrain().subscribe(Signal.CustomEvent.class, this::receiveCustomEvent);
   }
 
   /**
@@ -79,21 +90,39 @@ public abstract class Component extends Observable implements Observer {
    * @param signal The signal which is to be sended.
    */
   protected void sendSignal(final Signal signal) {
-    this.setChanged();
-    this.notifyObservers(signal);
+    this.eureka.getBrain().update(signal);
+  }
+
+  /**
+   * Subscribes a handler for a specific type of commands or events from the brain or other parts of the body.
+   * @param type The type of the signal, including its subtypes.
+   * @param handler The handler.
+   */
+  protected <T extends Signal> void subscribe(final Class<T> type, final SignalBus.Listener<? super T> handler) {
+    final Histogram histogram = Signal.Command.class.isAssignableFrom(type) ? this.m_commandTime : this.m_eventTime;
+    this.eureka.getBrain().subscribe(type, (T signal) -> {
+      final long start = System.nanoTime();
+      handler.receive(signal);
+      histogram.add(System.nanoTime() - start);
+    });
   }
 
   /**
-   * Handles an incoming command from the brain.
-   * @param command The command which is to be processed.
+   * Plans the actions of this tick and measures the time it took.
+   * @param budget The computation time available for this component in this tick.
    */
-  protected abstract void handleCommand(Signal.Command command);
+  public final void runPlan(final Budget budget) {
+    final long start = System.nanoTime();
+    this.plan(budget);
+    this.m_planTime.add(System.nanoTime() - start);
+  }
 
   /**
-   * Handles an incoming event from the brain or other part of the body.
-   * @param event The incoming event.
+   * Plans the actions of this tick, called once per tick after all perceptions were processed.
+   * Expensive work should stop if the budget is exhausted and continue in the next tick.
+   * @param budget The computation time available for this component in this tick.
    */
-  protected void handleEvent(Signal.Event event) {
+  public void plan(final Budget budget) {
   }
 
   /**
@@ -104,24 +133,16 @@ public abstract class Component extends Observable implements Observer {
   }
 
   /**
-   * Gets notified from the Java Observable and maps the the 'handle' functions.
-   * @param o The observable aka the brain.
-   * @param arg The signal which is to be processed.
+   * Checks if a custom event marks the end of the current operation and maps it to 'handleOperationDone'.
+   * @param event The custom event.
    */
-  @Override
-  public final void update(final Observable o, final Object arg) {
-    if (arg instanceof Signal.CustomEvent && ((Signal.CustomEvent) arg).getCondition() == this.m_currentStatus) {
+  private void receiveCustomEvent(final Signal.CustomEvent event) {
+    if (event.getCondition() == this.m_currentStatus) {
       // Operation complete, clean up and report component
+      final long start = System.nanoTime();
       this.stop();
-      this.handleOperationDone((Signal.CustomEvent) arg);
-    } else if (arg instanceof Signal.Event) {
-      // Handle events
-      this.handleEvent((Signal.Event) arg);
-    } else if (arg instanceof Signal.Command) {
-      // Handle commands
-      this.handleCommand((Signal.Command) arg);
-    } else {
-      throw new IllegalArgumentException("Signal expected");
+      this.handleOperationDone(event);
+      this.m_operationDoneTime.add(System.nanoTime() - start);
     }
   }
 }
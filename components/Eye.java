@@ -1,12 +1,16 @@
 package eureka.components;
 
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.NoSuchElementException;
-import java.util.Observable;
+import java.util.HashSet;
+import java.util.Map;
 import java.io.File;
-import java.awt.Graphics2D;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
 import java.io.Serializable;
+import java.util.TreeMap;
+import java.awt.Graphics2D;
 
 import robocode.util.Utils;
 
@@ -25,7 +29,7 @@ public class Eye extends Component {
 	 * An event which is fired when a robot was found on the map.
 	 */
 	public static class RobotFound implements Signal.GlobalEvent {
-		private final robocode.ScannedRobotEvent m_robot;
+		private robocode.ScannedRobotEvent m_robot;
 
 		/**
 		 * Constructs a new event from a 'ScannedRobotEvent'.
@@ -35,6 +39,16 @@ public class Eye extends Component {
 			this.m_robot = robot;
 		}
 
+		/**
+		 * Reuses the event for another 'ScannedRobotEvent'.
+		 * @param robot The robot found.
+		 * @return the event.
+		 */
+		public RobotFound reset(final robocode.ScannedRobotEvent robot) {
+			this.m_robot = robot;
+			return this;
+		}
+
 		/** 
 		 * Returns the scanned robot.
 		 * @return The scanned robot.
@@ -49,7 +63,7 @@ public class Eye extends Component {
 	 */
 	public static class RobotNearby implements Signal.Event {
 
-		private final Enemy m_robot;
+		private Enemy m_robot;
 
 		/**
 		 * Constructs a new event.
@@ -59,6 +73,16 @@ public class Eye extends Component {
 			this.m_robot = robot;
 		}
 
+		/**
+		 * Reuses the event for another robot.
+		 * @param robot The robot nearby.
+		 * @return the event.
+		 */
+		public RobotNearby reset(final Enemy robot) {
+			this.m_robot = robot;
+			return this;
+		}
+
 		/** 
 		 * Returns the robot nearby.
 		 * @return the nearby robot.
@@ -68,75 +92,6 @@ public class Eye extends Component {
 		}
 	}
 
-	/**
-	 * An iterator over all the enemies with more or less up-to-date information.
-	 */
-	public class CurrentEnemyIterator implements Iterator<Enemy>, Iterable<Enemy> {
-
-		/**
-		 * The threshold, after which information are classified as outdated.
-		 */
-		final static long TURN_THRESHOLD = 8;
-
-		private Iterator<Enemy> m_enemies;
-		private Enemy m_nextEnemy;
-		private final long m_current;
-
-		/**
-		 * Creates the iterator.
-		 * @param enemies A list of possible enemies.
-		 * @param currentTurn The current turn.
-		 */
-		protected CurrentEnemyIterator(final Iterator<Enemy> enemies, final long currentTurn) {
-			this.m_enemies = enemies;
-			this.m_current = currentTurn;
-		}
-
-		/**
-		 * Checks for next element.
-		 * @return True, if there is still a new element.
-		 */
-		public boolean hasNext() {
-			if (this.m_nextEnemy != null) {
-				return true;
-			} else {
-				// Search through all enemies ...
-				while (this.m_nextEnemy == null && this.m_enemies.hasNext()) {
-					// ... and find the active ones.
-					Enemy e = this.m_enemies.next();
-					if (e.isAlive() && e.lastContact().getTurn() >= this.m_current - TURN_THRESHOLD) {
-						this.m_nextEnemy = e;
-						return true;
-					}
-				}
-				return false;
-			}
-		}
-
-		/**
-		 * Returns the next element.
-		 * @return next up-to-date enemy.
-		 * @thows NoSuchElementException if no element is present.
-		 */
-		public Enemy next() {
-			// If the user have not called "hasNext" before, handle that
-			if (this.m_nextEnemy != null || this.hasNext()) {
-				Enemy tmp = this.m_nextEnemy;
-				this.m_nextEnemy = null;
-				return tmp;
-			} else {
-				throw new NoSuchElementException();
-			}
-		}
-
-		/**
-		 * Returns an iterator for an convinient usage in a foreach loop.
-		 */
-		public Iterator<Enemy> iterator() {
-			return this;
-		}
-	}
-
 	/**
 	 * Represents the direction a radar may turn.
 	 */
@@ -173,36 +128,131 @@ public class Eye extends Component {
 	}
 
 	/**
-	 * A calculator for the performance of an enemy on base of its survived turns.
+	 * A calculator for the performance of an enemy on base of its survived turns, backed by its stored profile.
 	 */
-	private static class EnemyPerformance implements Serializable {
-		private double m_avg, m_number;
+	private static class EnemyPerformance {
+		private final ProfileStore.Profile m_profile;
+
+		/**
+		 * Creates the calculator on top of the profile of an enemy.
+		 */
+		public EnemyPerformance(final ProfileStore.Profile profile) {
+			this.m_profile = profile;
+		}
 
 		/**
 		 * Adds a normalized value.
 		 */
 		public void addValue(double value) {
-			this.m_avg -= (this.m_avg - value) / ++m_number;
+			final double number = this.m_profile.get(PROFILE_NUMBER) + 1;
+			final double average = this.m_profile.get(PROFILE_AVERAGE);
+			this.m_profile.set(PROFILE_AVERAGE, average - (average - value) / number);
+			this.m_profile.set(PROFILE_NUMBER, number);
+		}
+
+		/**
+		 * Sets the average of an enemy without own values, i.e. from similar enemies. It is replaced by the first value.
+		 */
+		public void seed(double value) {
+			if (this.m_profile.get(PROFILE_NUMBER) == 0) {
+				this.m_profile.set(PROFILE_AVERAGE, value);
+			}
 		}
 
 		/**
 		 * Returns the average of the performance.
 		 */
 		public double getAverage() {
-			return this.m_avg;
+			return this.m_profile.get(PROFILE_AVERAGE);
 		}
 	}
 
+	/**
+	 * The performance of an enemy as stored by former versions in 'LEGACY_FILENAME', which is only read for the import.
+	 * Its fields have to match the ones stored.
+	 */
+	private static class LegacyPerformance implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private double m_avg, m_number;
+	}
+
 	/**
 	* The threshold in which a robot is classified as "nearby".
 	*/
 	public final int Threshold;
 
-	public static String ENEMY_FILENAME = "enemy_scores.ser";
+	/**
+	 * The threshold, after which information are classified as outdated.
+	 */
+	final static long TURN_THRESHOLD = 8;
+
+	/**
+	 * The angle the radar turns beyond the scheduled enemy in melee, such that its movement is covered.
+	 */
+	final static double MELEE_OVERSHOOT = Math.PI / 8;
+
+	/**
+	 * The width around the single enemy left, which is covered by the radar lock.
+	 */
+	final static double LOCK_WIDTH = 36;
+
+	public static String ENEMY_FILENAME = "enemy_profiles.dat";
+
+	/**
+	 * The file of the performances stored by former versions, which is imported once and deleted afterwards.
+	 */
+	public static String LEGACY_FILENAME = "enemy_scores.ser";
+
+	/**
+	 * The fields of the stored profile of an enemy.
+	 */
+	public final static int PROFILE_AVERAGE = 0, PROFILE_NUMBER = 1, PROFILE_FIELDS = 2;
+
+	public static String CLUSTER_FILENAME = "enemy_clusters.dat";
+
+	/**
+	 * The fields of a stored cluster of similar enemies: Their average performance, the number of assignments, the
+	 * centroid of their features and their average danger.
+	 */
+	public final static int CLUSTER_AVERAGE = 0, CLUSTER_NUMBER = 1, CLUSTER_FEATURES = 2,
+			CLUSTER_DANGER = CLUSTER_FEATURES + EnemyModel.FEATURES, CLUSTER_FIELDS = CLUSTER_DANGER + 1;
+
+	/**
+	 * The number of clusters and the distance of features, above which a free cluster is used instead of the nearest.
+	 */
+	final static int CLUSTERS = 4;
+	final static double CLUSTER_DISTANCE = 0.5;
+
+	/**
+	 * The maximal number of assignments a cluster is averaged over, such that it keeps adapting.
+	 */
+	final static int CLUSTER_WINDOW = 20;
+
+	/**
+	 * The number of observations of an unknown enemy, before it is assigned to a cluster.
+	 */
+	final static int SEED_OBSERVATIONS = 10;
 
 	private HashMap<String, Enemy> m_enemies;
-	private Memory<EnemyPerformance> m_performance;
+	private HashMap<String, EnemyPerformance> m_performance;
+	private ProfileStore m_profiles;
+	private final EnemyModelStore m_models;
+	private final ProfileStore m_clusters;
+	private final HashSet<String> m_unknown;
+	private final double[] m_features;
 	private Direction m_direction;
+	private final SignalPool<RobotNearby> m_robotNearby;
+	private final ScanningComplete m_scanningComplete;
+	private final EnemySnapshot.Builder m_snapshotBuilder;
+	private EnemySnapshot m_snapshot;
+	private boolean m_snapshotChanged;
+	private final PredictionCache m_predictions;
+	private boolean m_predictionsChanged;
+
+	// The state of the radar scheduler, which is active once all enemies are known
+	private boolean m_scheduling;
+	private long m_cycleStart;
+	private Enemy m_focus;
 
 	/**
 	 * Create the eye.
@@ -214,73 +264,225 @@ public class Eye extends Component {
 		this.Threshold = (int) eureka.getBrain().accessMemory("Eye/NearbyThreshold", new Range(200, 100, 300, 50));
 		this.m_enemies = new HashMap<String, Enemy>();
 		this.m_direction = Direction.Left;
-
-		// Tries to load the performance of former seen robots from a file
-		if ((this.m_performance = Memory.load(new File(eureka.getDataDirectory(), Eye.ENEMY_FILENAME))) == null) {
-			m_performance = new Memory<>();
-		}
+		this.m_performance = new HashMap<String, EnemyPerformance>();
+		this.m_robotNearby = new SignalPool<RobotNearby>(() -> new RobotNearby(null));
+		this.m_scanningComplete = new ScanningComplete();
+		this.m_snapshotBuilder = new EnemySnapshot.Builder(eureka.getBattleFieldWidth(), eureka.getBattleFieldHeight());
+		this.m_snapshot = null;
+		this.m_snapshotChanged = true;
+		this.m_predictions = new PredictionCache(eureka.getBattleFieldWidth(), eureka.getBattleFieldHeight());
+		this.m_predictionsChanged = true;
+		this.m_scheduling = false;
+		this.m_cycleStart = 0;
+		this.m_focus = null;
+
+		// Tries to open the profiles of former seen robots once per battle, which are loaded on first contact
+		this.m_profiles = BattleCache.get("Eye/Profiles", () -> {
+			ProfileStore profiles = ProfileStore.load(new File(eureka.getDataDirectory(), Eye.ENEMY_FILENAME),
+					Eye.PROFILE_FIELDS);
+			if (profiles == null) {
+				profiles = new ProfileStore(Eye.PROFILE_FIELDS);
+				Eye.importLegacy(new File(eureka.getDataDirectory(), Eye.LEGACY_FILENAME), profiles);
+			}
+			return profiles;
+		});
+
+		// Keep the models of the enemies over all rounds, but only for a limited number and memory of them
+		this.m_models = BattleCache.get("Eye/Models", () -> new EnemyModelStore(EnemyModelStore.DEFAULT_CAPACITY,
+				EnemyModelStore.DEFAULT_BYTES));
+
+		// The clusters of enemies seen in former battles, used to estimate unknown ones
+		this.m_clusters = BattleCache.get("Eye/Clusters", () -> {
+			final ProfileStore clusters = ProfileStore.load(new File(eureka.getDataDirectory(), Eye.CLUSTER_FILENAME),
+					Eye.CLUSTER_FIELDS);
+			return clusters != null ? clusters : new ProfileStore(Eye.CLUSTER_FIELDS);
+		});
+		this.m_unknown = new HashSet<String>();
+		this.m_features = new double[EnemyModel.FEATURES];
+
+		// Register the handlers of the signals
+		this.subscribe(RobotFound.class, this::handleRobotFound);
+		this.subscribe(Eureka.EnemyDied.class, this::handleEnemyDied);
+		this.subscribe(Eureka.RoundEnded.class, this::handleRoundEnded);
+		this.subscribe(Eureka.BattleEnded.class, this::handleBattleEnded);
+		this.subscribe(Brain.Scan.class, this::handleScan);
+		this.subscribe(Brain.Attack.class, this::handleAttack);
 	}
 
 	@Override
 	protected void handleOperationDone(CustomEvent event) {
-		this.sendSignal(new ScanningComplete());
+		this.sendSignal(this.m_scanningComplete);
 	}
 
-	@Override
-	protected void handleEvent(final Signal.Event event) {
-		if (event instanceof RobotFound) {
-			robocode.ScannedRobotEvent enemy = ((RobotFound) event).getRobot();
-
-			// Add enemy to queue, if not already happen.
-			Enemy e = this.m_enemies.get(enemy.getName());
-			if (e != null) {
-				e.addContact(this.eureka, enemy);
-			} else {
-				e = new Enemy(this.eureka, enemy);
-				this.m_enemies.put(enemy.getName(), e);
+	/**
+	 * Tracks a found robot and reports it if it is nearby.
+	 */
+	private void handleRobotFound(final RobotFound event) {
+		robocode.ScannedRobotEvent enemy = event.getRobot();
+
+		// Add enemy to queue, if not already happen.
+		Enemy e = this.m_enemies.get(enemy.getName());
+		if (e != null) {
+			e.addContact(this.eureka, enemy);
+		} else {
+			e = new Enemy(this.eureka, enemy, this.m_models.getModel(Enemy.getBaseName(enemy.getName())));
+			this.m_enemies.put(enemy.getName(), e);
+			if (!this.m_profiles.contains(e.getBaseName())) {
+				this.m_unknown.add(e.getBaseName());
 			}
+			this.getEnemyPerformance(e);
+		}
+		this.m_snapshotChanged = true;
 
-			// Checks the current distance of the new-seen enemy.
-			if (e.lastContact().getDistance() < this.Threshold) {
-				this.sendSignal(new RobotNearby(e));
-			}
-		} else if (event instanceof Eureka.EnemyDied) {
-			// Save enemy as dead
-			Enemy e = this.getEnemy(((Eureka.EnemyDied) event).getEnemy().getName());
-			if (e != null) {
-				// If enemy does not die unseen...
-				e.setDeadTurn((int) this.eureka.getTime());
-			}
-		} else if (event instanceof Eureka.RoundEnded) {
-			// Calculate the performance of every enemy after the round ends.
-			final int turns = ((Eureka.RoundEnded) event).getTurns();
-			for (Enemy e : this.m_enemies.values()) {
-				EnemyPerformance performance = this.m_performance.getValue(e.getBaseName(), new EnemyPerformance());
-				performance.addValue(e.isAlive() ? 1.0d : (e.getDeadTurn() / turns));
+		// Estimate an unknown enemy from similar ones as soon as its behaviour is observed
+		if (!this.m_unknown.isEmpty() && e.getModel().getObservations() >= SEED_OBSERVATIONS
+				&& this.m_unknown.remove(e.getBaseName())) {
+			this.seed(e);
+		}
+
+		// Checks the current distance of the new-seen enemy.
+		if (e.lastContact().getDistance() < this.Threshold) {
+			this.sendSignal(this.m_robotNearby.obtain().reset(e));
+			this.m_robotNearby.release();
+		}
+	}
+
+	/**
+	 * Saves an enemy as dead.
+	 */
+	private void handleEnemyDied(final Eureka.EnemyDied event) {
+		Enemy e = this.getEnemy(event.getEnemy().getName());
+		if (e != null) {
+			// If enemy does not die unseen...
+			e.setDeadTurn((int) this.eureka.getTime());
+			this.m_snapshotChanged = true;
+		}
+	}
+
+	/**
+	 * Calculates the performance of every enemy after the round ends.
+	 */
+	private void handleRoundEnded(final Eureka.RoundEnded event) {
+		final int turns = event.getTurns();
+		for (Enemy e : this.m_enemies.values()) {
+			this.getEnemyPerformance(e).addValue(e.isAlive() ? 1.0d : (e.getDeadTurn() / turns));
+		}
+	}
+
+	/**
+	 * Tries to save the heuristics for further use.
+	 */
+	private void handleBattleEnded(final Eureka.BattleEnded event) {
+		// Teach the clusters the behaviour observed in this battle, once for all robots with the same base name
+		for (EnemyModel model : this.m_models.getModels()) {
+			if (model.getObservations() >= SEED_OBSERVATIONS) {
+				this.learnCluster(model.getFeatures(this.m_features),
+						this.m_profiles.getProfile(model.getName()).get(PROFILE_AVERAGE), model.getDanger());
 			}
-		} else if (event instanceof Eureka.BattleEnded) {
-			// Tries to save the heuristics for further use
-			try {
-				this.m_performance.save(new File(eureka.getDataDirectory(), Eye.ENEMY_FILENAME));
-			} catch (Exception ex) {
-				this.eureka.out.println("[ERROR] Saving failed");
+		}
+
+		try {
+			this.m_profiles.save(new File(eureka.getDataDirectory(), Eye.ENEMY_FILENAME));
+			this.m_clusters.save(new File(eureka.getDataDirectory(), Eye.CLUSTER_FILENAME));
+
+			// The profiles contain the imported performances now, so the old file is not needed any longer
+			new File(eureka.getDataDirectory(), Eye.LEGACY_FILENAME).delete();
+		} catch (Exception ex) {
+			this.eureka.out.println("[ERROR] Saving failed");
+		}
+	}
+
+	/**
+	 * Does scan, if not otherwise in use: Sweeps until all enemies are found and schedules the radar afterwards.
+	 */
+	private void handleScan(final Brain.Scan command) {
+		if (!this.isBusy()) {
+			this.m_scheduling = this.isTracking();
+			if (!this.m_scheduling) {
+				this.scan();
 			}
 		}
 	}
 
-	@Override
-	protected void handleCommand(final Signal.Command command) {
-		if (command instanceof Brain.Scan && !this.isBusy()) {
-			// Do scan, if not otherwise in use
-			this.scan();
-		} else if (command instanceof Brain.Attack) {
-			// Abort general scanning and focus on enemy on attack
-			Enemy e = ((Brain.Attack) command).getEnemy();
+	/**
+	 * Aborts general scanning and focus on enemy on attack.
+	 */
+	private void handleAttack(final Brain.Attack command) {
+		Enemy e = command.getEnemy();
+		if (this.m_scheduling) {
+			this.m_focus = e;
+		} else {
 			this.turnRight(Utils.normalRelativeAngleDegrees(
 					this.eureka.getHeading() - this.eureka.getRadarHeading() + e.lastContact().getBearing()));
 		}
 	}
 
+	/**
+	 * Schedules the radar towards the enemy whose information is the most outdated in relation to its importance.
+	 * If only one enemy is left, the radar is locked onto it. Each time all enemies were refreshed, the scanning is
+	 * reported as complete.
+	 */
+	@Override
+	public void plan(final Budget budget) {
+		if (!this.m_scheduling || this.isBusy()) {
+			return;
+		}
+		if (!this.isTracking()) {
+			// An enemy is unknown, search for it
+			this.m_scheduling = false;
+			this.scan();
+			return;
+		}
+
+		// Find the enemy with the highest priority and check if all were seen in this cycle
+		final long turn = this.eureka.getTime();
+		Enemy target = null;
+		double targetPriority = -1;
+		boolean complete = true;
+		for (Enemy e : this.m_enemies.values()) {
+			if (e.isAlive()) {
+				final long age = turn - e.lastContact().getTurn();
+				final double priority = (e == this.m_focus && age > 0) ? Double.POSITIVE_INFINITY
+						: age * (1 + e.getDanger()) * (1 + this.Threshold / Math.max(1, e.lastContact().getDistance()));
+				if (priority > targetPriority) {
+					target = e;
+					targetPriority = priority;
+				}
+				complete &= e.lastContact().getTurn() >= this.m_cycleStart;
+			}
+		}
+		if (this.m_focus != null && (!this.m_focus.isAlive() || this.m_focus.lastContact().getTurn() == turn)) {
+			this.m_focus = null;
+		}
+		if (complete) {
+			this.m_cycleStart = turn + 1;
+			this.sendSignal(this.m_scanningComplete);
+		}
+
+		// Turn the radar over the enemy, in a small arc if it is the last one
+		final double distance = target.lastContact().distance(this.eureka.getX(), this.eureka.getY());
+		final double bearing = Math.atan2(target.lastContact().getX() - this.eureka.getX(),
+				target.lastContact().getY() - this.eureka.getY());
+		final double rotation = Utils.normalRelativeAngle(bearing - this.eureka.getRadarHeadingRadians());
+		final double overshoot = this.eureka.getOthers() == 1 ? Math.atan(LOCK_WIDTH / Math.max(1, distance))
+				: MELEE_OVERSHOOT;
+		this.eureka.setTurnRadarRightRadians(rotation + (rotation < 0 ? -overshoot : overshoot));
+	}
+
+	/**
+	 * Checks if all the enemies alive are known, such that the radar might be scheduled.
+	 * @return true if the position of every enemy is known.
+	 */
+	private boolean isTracking() {
+		int alive = 0;
+		for (Enemy e : this.m_enemies.values()) {
+			if (e.isAlive()) {
+				alive++;
+			}
+		}
+		return alive > 0 && alive >= this.eureka.getOthers();
+	}
+
 	/**
 	 * Returns an enemy by its name.
 	 * @return the Enemy or null elsewise.
@@ -295,7 +497,119 @@ public class Eye extends Component {
 	 * @return The normalized performance between 0 and 1.
 	 */
 	public double getPerformance(final Enemy enemy) {
-		return this.m_performance.getValue(enemy.getBaseName(), new EnemyPerformance()).getAverage();
+		return this.getEnemyPerformance(enemy).getAverage();
+	}
+
+	/**
+	 * Imports the performances stored by former versions, a serialized memory of them by the base names of the enemies.
+	 * @param file The file, which might not exist.
+	 * @param profiles The store to import into.
+	 */
+	@SuppressWarnings("unchecked")
+	private static void importLegacy(final File file, final ProfileStore profiles) {
+		if (!file.isFile()) {
+			return;
+		}
+
+		// The stored class does not exist any longer, read it as its replacement with the same fields
+		try (FileInputStream fis = new FileInputStream(file); ObjectInputStream ois = new ObjectInputStream(fis) {
+			@Override
+			protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+				final ObjectStreamClass descriptor = super.readClassDescriptor();
+				return descriptor.getName().equals("eureka.components.Eye$EnemyPerformance")
+						? ObjectStreamClass.lookup(LegacyPerformance.class) : descriptor;
+			}
+		}) {
+			final Object performances = ois.readObject();
+			for (Map.Entry<String, LegacyPerformance> entry : ((TreeMap<String, LegacyPerformance>) performances)
+					.entrySet()) {
+				final ProfileStore.Profile profile = profiles.getProfile(entry.getKey());
+				profile.set(PROFILE_AVERAGE, entry.getValue().m_avg);
+				profile.set(PROFILE_NUMBER, entry.getValue().m_number);
+			}
+		} catch (Exception ex) {
+			System.err.printf("[Error] Unable to import performances '%s' (%s)\n", file.getAbsolutePath(),
+					ex.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the performance calculator of an enemy, whose profile is loaded on first access.
+	 * @param enemy The enemy.
+	 * @return the calculator shared by all enemies with the same base name.
+	 */
+	private EnemyPerformance getEnemyPerformance(final Enemy enemy) {
+		EnemyPerformance performance = this.m_performance.get(enemy.getBaseName());
+		if (performance == null) {
+			performance = new EnemyPerformance(this.m_profiles.getProfile(enemy.getBaseName()));
+			this.m_performance.put(enemy.getBaseName(), performance);
+		}
+		return performance;
+	}
+
+	/**
+	 * Seeds the performance and the danger of an unknown enemy from the nearest cluster of known ones.
+	 * @param enemy The enemy.
+	 */
+	private void seed(final Enemy enemy) {
+		final ProfileStore.Profile cluster = this.findCluster(enemy.getModel().getFeatures(this.m_features), false);
+		if (cluster != null) {
+			this.getEnemyPerformance(enemy).seed(cluster.get(CLUSTER_AVERAGE));
+			enemy.getModel().seedDanger(cluster.get(CLUSTER_DANGER));
+			this.m_snapshotChanged = true;
+		}
+	}
+
+	/**
+	 * Moves the nearest cluster towards the features, the performance and the danger of an enemy.
+	 * @param features The features of the enemy.
+	 * @param performance The performance of the enemy.
+	 * @param danger The average danger of the enemy.
+	 */
+	private void learnCluster(final double[] features, final double performance, final double danger) {
+		final ProfileStore.Profile cluster = this.findCluster(features, true);
+		final double number = cluster.get(CLUSTER_NUMBER) + 1;
+		final double weight = 1 / Math.min(number, CLUSTER_WINDOW);
+		cluster.set(CLUSTER_NUMBER, number);
+		cluster.set(CLUSTER_AVERAGE, cluster.get(CLUSTER_AVERAGE) + (performance - cluster.get(CLUSTER_AVERAGE)) * weight);
+		cluster.set(CLUSTER_DANGER, cluster.get(CLUSTER_DANGER) + (danger - cluster.get(CLUSTER_DANGER)) * weight);
+		for (int i = 0; i < features.length; i++) {
+			final double value = cluster.get(CLUSTER_FEATURES + i);
+			cluster.set(CLUSTER_FEATURES + i, value + (features[i] - value) * weight);
+		}
+	}
+
+	/**
+	 * Finds the cluster nearest to the features of an enemy.
+	 * @param features The features of the enemy.
+	 * @param create Whether a free cluster is returned, if there is no cluster near enough.
+	 * @return the cluster or 'null', if there is none.
+	 */
+	private ProfileStore.Profile findCluster(final double[] features, final boolean create) {
+		ProfileStore.Profile nearest = null, free = null;
+		double nearestDistance = Double.POSITIVE_INFINITY;
+		for (int c = 0; c < CLUSTERS; c++) {
+			final ProfileStore.Profile cluster = this.m_clusters.getProfile(Integer.toString(c));
+			if (cluster.get(CLUSTER_NUMBER) == 0) {
+				free = free != null ? free : cluster;
+				continue;
+			}
+
+			double distance = 0;
+			for (int i = 0; i < features.length; i++) {
+				final double difference = cluster.get(CLUSTER_FEATURES + i) - features[i];
+				distance += difference * difference;
+			}
+			if (distance < nearestDistance) {
+				nearest = cluster;
+				nearestDistance = distance;
+			}
+		}
+
+		if (create && free != null && (nearest == null || Math.sqrt(nearestDistance) > CLUSTER_DISTANCE)) {
+			return free;
+		}
+		return nearest;
 	}
 
 	/**
@@ -324,18 +638,58 @@ public class Eye extends Component {
 	}
 
 	/**
-	 * Returns a iterator about current enemies.
-	 * @return The iterator over the enemies.
+	 * Returns the snapshot of the enemies with more or less up-to-date information. It is built on the first access
+	 * after the perception of a tick, i.e. once per tick, and replaced by a new one afterwards.
+	 * @return the snapshot, which does not change.
+	 */
+	public EnemySnapshot getSnapshot() {
+		final long turn = this.eureka.getTime();
+		if (this.m_snapshotChanged || this.m_snapshot.getTurn() != turn) {
+			this.m_snapshotBuilder.clear(turn);
+			for (Enemy e : this.m_enemies.values()) {
+				if (e.isAlive() && e.lastContact().getTurn() >= turn - TURN_THRESHOLD) {
+					this.m_snapshotBuilder.add(e, this.getEnemyPerformance(e).getAverage());
+				}
+			}
+			this.m_snapshot = this.m_snapshotBuilder.build();
+			this.m_snapshotChanged = false;
+			this.m_predictionsChanged = true;
+		}
+		return this.m_snapshot;
+	}
+
+	/**
+	 * Returns the predicted paths of the enemies in the snapshot, which are computed at most once per turn.
+	 * @return the predictions, valid until the end of the turn.
 	 */
-	public CurrentEnemyIterator getCurrentEnemies() {
-		return new CurrentEnemyIterator(this.m_enemies.values().iterator(), this.eureka.getTime());
+	public PredictionCache getPredictions() {
+		final EnemySnapshot enemies = this.getSnapshot();
+		if (this.m_predictionsChanged) {
+			this.m_predictions.update(enemies);
+			this.m_predictionsChanged = false;
+		}
+		return this.m_predictions;
 	}
 
 	@Override
 	public void drawDebug(Graphics2D g) {
+		// Paint the snapshot and the predictions as they are, painting must not build them before the perception
+		if (this.m_snapshot == null) {
+			return;
+		}
 		g.setColor(java.awt.Color.GREEN);
-		for (Enemy enemy : this.getCurrentEnemies()) {
-			g.fillOval((int) enemy.lastContact().getX() - 8, (int) enemy.lastContact().getY() - 8, 8, 8);
+		final EnemySnapshot enemies = this.m_snapshot;
+		for (int i = 0; i < enemies.size(); i++) {
+			g.fillOval((int) enemies.getX(i) - 8, (int) enemies.getY(i) - 8, 8, 8);
+		}
+
+		// Paint the predicted paths
+		final PredictionCache predictions = this.m_predictions;
+		for (int i = 0; i < predictions.size(); i++) {
+			for (int t = 1; t <= PredictionCache.HORIZON; t++) {
+				g.drawLine((int) predictions.getX(i, t - 1), (int) predictions.getY(i, t - 1),
+						(int) predictions.getX(i, t), (int) predictions.getY(i, t));
+			}
 		}
 	}
 }
@@ -1,17 +1,15 @@
 package eureka.components;
 
 import java.awt.geom.Point2D;
-import java.util.Observable;
 import java.awt.Graphics2D;
+import java.io.File;
 import robocode.util.Utils;
+import robocode.Bullet;
 import robocode.Rules;
 
 import eureka.Eureka;
 import eureka.Brain;
 import eureka.helper.*;
-import eureka.helper.Signal.Command;
-import eureka.helper.Signal.Event;
-import eureka.helper.Signal.CustomEvent;
 import eureka.config.*;
 
 /**
@@ -31,16 +29,137 @@ public class Fist extends Component {
     public static class AimAborted implements Signal.Event {
     }
 
+    /**
+     * An event which is fired by the engine after a bullet of the robot hit a robot, missed or hit another bullet.
+     */
+    public static class BulletDone implements Signal.GlobalEvent {
+        private final Bullet m_bullet;
+        private final int m_outcome;
+        private final String m_victim;
+
+        /**
+         * Creates a new event.
+         * @param bullet The bullet.
+         * @param outcome The outcome, see 'BulletLedger'.
+         * @param victim The name of the robot hit or null.
+         */
+        public BulletDone(final Bullet bullet, final int outcome, final String victim) {
+            this.m_bullet = bullet;
+            this.m_outcome = outcome;
+            this.m_victim = victim;
+        }
+
+        /**
+         * Returns the bullet.
+         * @return the bullet.
+         */
+        public Bullet getBullet() {
+            return this.m_bullet;
+        }
+
+        /**
+         * Returns the outcome.
+         * @return 'BulletLedger.MISSED', 'BulletLedger.HIT' or 'BulletLedger.DESTROYED'.
+         */
+        public int getOutcome() {
+            return this.m_outcome;
+        }
+
+        /**
+         * Returns the name of the robot hit.
+         * @return the name or null, if no robot was hit.
+         */
+        public String getVictim() {
+            return this.m_victim;
+        }
+    }
+
+    /**
+     * An event which is fired after a bullet aimed at an enemy was resolved.
+     */
+    public static class ShotResolved implements Signal.Event {
+        private BulletLedger m_ledger;
+        private boolean m_hit;
+
+        /**
+         * Returns the base name of the enemy aimed at.
+         * @return the base name.
+         */
+        public String getTarget() {
+            return this.m_ledger.getTarget();
+        }
+
+        /**
+         * Checks if the enemy aimed at was hit.
+         * @return true, if hit.
+         */
+        public boolean isHit() {
+            return this.m_hit;
+        }
+
+        /**
+         * Returns the power of the bullet.
+         * @return the power.
+         */
+        public double getPower() {
+            return this.m_ledger.getPower();
+        }
+
+        /**
+         * Returns the distance of the enemy on firing.
+         * @return the distance.
+         */
+        public double getDistance() {
+            return this.m_ledger.getDistance();
+        }
+
+        /**
+         * Returns the rate of hits of the enemy, including this shot.
+         * @return the rate within [0, 1].
+         */
+        public double getHitRate() {
+            return this.m_ledger.getHitRate(this.m_ledger.getTarget());
+        }
+    }
+
+    /**
+     * The name of the file with the statistics of the bullets per opponent.
+     */
+    public final static String STATISTICS_FILENAME = "bullet_statistics.dat";
+
     /**
      * The power which is used to calculate the power of the bullet over distance.
      */
     public final double PowerConstant;
 
+    /**
+     * The parameters of solving intercepts: The number of ticks a former solution is reused as start, the maximal
+     * number of iterations and the accuracy of the flight time in ticks.
+     */
     public final static long TICK_RANGE = 20;
     public final static int ITERATIONS = 15;
     public final static double ACCURACY = 0.01d;
 
+    /**
+     * The maximal number of ticks of aiming, before it is aborted.
+     */
+    public final static int MAX_AIM_TICKS = 30;
+
+    /**
+     * The tolerance of aiming into a direction without a target.
+     */
+    public final static double DIRECTION_TOLERANCE = Math.toRadians(1);
+
+    // The current aim: Either at an enemy or into a fixed direction, if the bearing is set
+    private Enemy m_target;
+    private double m_bearing;
     private double m_firePower;
+    private long m_aimStart;
+    private final VirtualGuns m_guns;
+    private final BulletLedger m_ledger;
+    private final BulletFired m_bulletFired;
+    private final AimAborted m_aimAborted;
+    private final ShotResolved m_shotResolved;
 
     /**
      * Creates a new fist.
@@ -51,38 +170,155 @@ public class Fist extends Component {
 
         this.eureka.setAdjustGunForRobotTurn(true);
         this.eureka.setAdjustRadarForGunTurn(true);
+        this.m_bulletFired = new BulletFired();
+        this.m_aimAborted = new AimAborted();
+        this.m_shotResolved = new ShotResolved();
+        this.m_target = null;
+        this.m_bearing = Double.NaN;
+        this.m_guns = new VirtualGuns(new Gun.Linear(), new Gun.HeadOn(),
+                new Gun.Circular(new InterceptSolver(TICK_RANGE, ITERATIONS, ACCURACY)),
+                new GuessFactorGun(), new PatternMatchingGun());
+
+        // Keep the bullets in the air and the statistics of the opponents over all rounds
+        this.m_ledger = BattleCache.get("Fist/Ledger", () -> {
+            final ProfileStore statistics = ProfileStore.load(
+                    new File(eureka.getDataDirectory(), Fist.STATISTICS_FILENAME), BulletLedger.FIELDS);
+            return new BulletLedger(statistics != null ? statistics : new ProfileStore(BulletLedger.FIELDS));
+        });
+        this.m_shotResolved.m_ledger = this.m_ledger;
+
+        // Register the handlers of the signals
+        this.subscribe(Brain.Attack.class, this::handleAttack);
+        this.subscribe(Brain.Move.class, this::handleMove);
+        this.subscribe(Brain.Fire.class, this::handleFire);
+        this.subscribe(Fist.BulletDone.class, this::handleBulletDone);
+        this.subscribe(Leg.HitByBullet.class, this::handleBulletHit);
+        this.subscribe(Eureka.RoundEnded.class, this::handleRoundEnded);
+        this.subscribe(Eureka.BattleEnded.class, this::handleBattleEnded);
     }
 
     /**
-     * Aims an enemy.
+     * Starts aiming at an enemy, which goes on until the bullet is fired.
+     * @param target The enemy.
+     * @param firePower The power of the bullet.
+     * @return false, if the power is invalid.
      */
-    private boolean aim(final Enemy target) {
-        // Adopted from http://robowiki.net/wiki/Linear_Targeting.
-        final double enemyBearingRadians = Math.toRadians(target.lastContact().getBearing());
-        final double headOnBearing = this.eureka.getHeadingRadians() + enemyBearingRadians;
-        final double linearBearing = headOnBearing + Math.asin(target.lastContact().getVelocity()
-                / Rules.getBulletSpeed(this.PowerConstant) * Math.sin(enemyBearingRadians - headOnBearing));
-
-        return this.aim(Utils.normalRelativeAngle(linearBearing - this.eureka.getGunHeadingRadians()),
-                this.PowerConstant);
+    private boolean aim(final Enemy target, final double firePower) {
+        return this.startAim(target, Double.NaN, firePower);
     }
 
     /**
-     * Aims towards a position and prepare firing.
+     * Starts aiming into a direction, which goes on until the bullet is fired.
+     * @param gunRotation The rotation of the gun towards the direction.
+     * @param firePower The power of the bullet.
+     * @return false, if the power is invalid.
      */
     private boolean aim(final double gunRotation, final double firePower) {
-        // Check for valid gun heat and fire power
-        if (this.eureka.getGunHeat() != 0 || firePower < robocode.Rules.MIN_BULLET_POWER) {
+        return this.startAim(null, this.eureka.getGunHeadingRadians() + gunRotation, firePower);
+    }
+
+    private boolean startAim(final Enemy target, final double bearing, final double firePower) {
+        if (firePower < Rules.MIN_BULLET_POWER) {
             return false;
         }
 
-        // Start turning the gun asynchroniously
+        this.stop();
+        this.m_target = target;
+        this.m_bearing = bearing;
         this.m_firePower = firePower;
-        this.eureka.setTurnGunRightRadians(gunRotation);
-        this.start(new robocode.GunTurnCompleteCondition(this.eureka));
+        this.m_aimStart = this.eureka.getTime();
         return true;
     }
 
+    /**
+     * Checks if the fist is aiming.
+     * @return True if a operation is going on.
+     */
+    @Override
+    public boolean isBusy() {
+        return super.isBusy() || this.m_target != null || !Double.isNaN(this.m_bearing);
+    }
+
+    /**
+     * Stops aiming.
+     */
+    @Override
+    public void stop() {
+        this.m_target = null;
+        this.m_bearing = Double.NaN;
+        super.stop();
+    }
+
+    /**
+     * Aims and fires if the gun is aligned, then scores the virtual bullets against the enemies seen in this tick and
+     * fires new ones at them, if time is left.
+     */
+    @Override
+    public void plan(final Budget budget) {
+        final long turn = this.eureka.getTime();
+        if (this.isBusy()) {
+            this.track(turn);
+        }
+
+        this.m_guns.expire(turn, Math.hypot(this.eureka.getBattleFieldWidth(), this.eureka.getBattleFieldHeight()));
+        final EnemySnapshot enemies = this.eureka.getEye().getSnapshot();
+        final double bulletSpeed = Rules.getBulletSpeed(this.PowerConstant);
+        for (int i = 0; i < enemies.size(); i++) {
+            final Enemy enemy = enemies.getEnemy(i);
+            if (enemy.lastContact().getTurn() == turn) {
+                this.m_guns.update(enemy);
+                if (!budget.isExhausted()) {
+                    this.m_guns.fire(this.eureka, enemy, bulletSpeed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves the aim of this tick: The gun is turned onto the current solution while it cools down and fires as soon as
+     * it is cool and the remaining error is within the width of the target.
+     * @param turn The current turn.
+     */
+    private void track(final long turn) {
+        // Give up on targets which are lost or take too long
+        if ((this.m_target != null && (!this.m_target.isAlive()
+                || this.m_target.lastContact().getTurn() < turn - Eye.TURN_THRESHOLD))
+                || turn - this.m_aimStart > MAX_AIM_TICKS) {
+            this.stop();
+            this.sendSignal(this.m_aimAborted);
+            return;
+        }
+
+        double bearing = this.m_bearing, tolerance = DIRECTION_TOLERANCE;
+        if (this.m_target != null) {
+            bearing = this.m_guns.select(this.m_target).aim(this.eureka, this.m_target,
+                    Rules.getBulletSpeed(this.m_firePower));
+            tolerance = Math.atan(VirtualGuns.ROBOT_RADIUS / Math.max(VirtualGuns.ROBOT_RADIUS,
+                    this.m_target.lastContact().distance(this.eureka.getX(), this.eureka.getY())));
+        }
+
+        final double rotation = Utils.normalRelativeAngle(bearing - this.eureka.getGunHeadingRadians());
+        if (this.eureka.getGunHeat() == 0 && Math.abs(rotation) <= tolerance) {
+            final Bullet bullet = this.eureka.setFireBullet(this.m_firePower);
+            if (this.m_target != null) {
+                this.m_ledger.fired(bullet, this.m_target.getBaseName(),
+                        this.m_target.lastContact().distance(this.eureka.getX(), this.eureka.getY()), turn);
+            }
+            this.stop();
+            this.sendSignal(this.m_bulletFired);
+        } else {
+            this.eureka.setTurnGunRightRadians(rotation);
+        }
+    }
+
+    /**
+     * Returns the ledger of the bullets with the hit rates.
+     * @return the ledger.
+     */
+    public BulletLedger getLedger() {
+        return this.m_ledger;
+    }
+
     /**
      * Returns the heading of the gun.
      * @return the heading of the gun.
@@ -91,22 +327,72 @@ public class Fist extends Component {
         return this.eureka.getGunHeading();
     }
 
-    @Override
-    protected void handleCommand(Command command) {
-        if (command instanceof Brain.Attack && !this.aim(((Brain.Attack) command).getEnemy())) {
-            // Send aiming failure, i.e. caused through gun heat
-            this.sendSignal(new AimAborted());
-        } else if (command instanceof Brain.Move) {
-            // Set the gun into the direction of the moving tank
-            this.eureka.setTurnGunRightRadians(
-                    Utils.normalRelativeAngle(this.eureka.getHeadingRadians() - this.eureka.getGunHeadingRadians()));
+    /**
+     * Aims the enemy to attack.
+     */
+    private void handleAttack(final Brain.Attack command) {
+        if (!this.aim(command.getEnemy(), this.PowerConstant)) {
+            this.sendSignal(this.m_aimAborted);
         }
     }
 
-    @Override
-    protected void handleOperationDone(CustomEvent event) {
-        // Fire, if the gun is finally rotated
-        this.eureka.fire(this.m_firePower);
-        this.sendSignal(new BulletFired());
+    /**
+     * Fires into the specified direction.
+     */
+    private void handleFire(final Brain.Fire command) {
+        if (!this.aim(command.getRotation(), command.getPower())) {
+            this.sendSignal(this.m_aimAborted);
+        }
+    }
+
+    /**
+     * Sets the gun into the direction of the moving tank, if not aiming.
+     */
+    private void handleMove(final Brain.Move command) {
+        if (this.isBusy()) {
+            return;
+        }
+
+        // Set the gun into the direction of the moving tank
+        this.eureka.setTurnGunRightRadians(
+                Utils.normalRelativeAngle(this.eureka.getHeadingRadians() - this.eureka.getGunHeadingRadians()));
+    }
+
+    /**
+     * Resolves a bullet of the robot and reports the shot, if it was aimed at an enemy.
+     */
+    private void handleBulletDone(final Fist.BulletDone event) {
+        final String victim = event.getVictim() != null ? Enemy.getBaseName(event.getVictim()) : null;
+        if (this.m_ledger.resolve(event.getBullet(), event.getOutcome(), victim, this.eureka.getTime())
+                && event.getOutcome() != BulletLedger.DESTROYED) {
+            this.m_shotResolved.m_hit = event.getOutcome() == BulletLedger.HIT
+                    && this.m_ledger.getTarget().equals(victim);
+            this.sendSignal(this.m_shotResolved);
+        }
+    }
+
+    /**
+     * Counts a bullet of an enemy, which hit the robot.
+     */
+    private void handleBulletHit(final Leg.HitByBullet event) {
+        this.m_ledger.received(Enemy.getBaseName(event.getName()), Rules.getBulletDamage(event.getPower()));
+    }
+
+    /**
+     * Forgets the bullets of the round.
+     */
+    private void handleRoundEnded(final Eureka.RoundEnded event) {
+        this.m_ledger.clear();
+    }
+
+    /**
+     * Tries to save the statistics of the bullets for further use.
+     */
+    private void handleBattleEnded(final Eureka.BattleEnded event) {
+        try {
+            this.m_ledger.save(new File(eureka.getDataDirectory(), Fist.STATISTICS_FILENAME));
+        } catch (Exception ex) {
+            this.eureka.out.println("[ERROR] Saving failed");
+        }
     }
-}
\ No newline at end of file
+}
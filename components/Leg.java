@@ -1,9 +1,6 @@
 package eureka.components;
 
 import java.awt.geom.Point2D;
-import java.util.Arrays;
-import java.util.Observable;
-import java.util.Collections;
 import java.awt.Graphics2D;
 
 import robocode.util.Utils;
@@ -11,8 +8,6 @@ import robocode.util.Utils;
 import eureka.Eureka;
 import eureka.Brain;
 import eureka.helper.*;
-import eureka.helper.Signal.Command;
-import eureka.helper.Signal.Event;
 import eureka.helper.Signal.CustomEvent;
 import eureka.config.*;
 
@@ -22,113 +17,106 @@ import eureka.config.*;
 public class Leg extends Component {
 
   /**
-   * The number of flightpoints which are to be evaluated.
+   * The maximal number of flightpoints evaluated in one search.
    */
-  final static int FLIGHT_POINTS = 80;
+  final static int FLIGHT_POINTS = 160;
 
   /**
-   * An event which is fired if a current movement is complete.
+   * The step between the directions of the fresh flightpoints evaluated one after another, coprime to their number.
+   * It guarantees an evenly spread set of points whatever their number is.
    */
-  public static class MovementDone implements Signal.Event {
-  }
+  final static int SEARCH_STRIDE = 31;
 
   /**
-   * A potential position which is evaluated in terms of safety.
+   * The number of fresh flightpoints at least and per enemy.
    */
-  public static class FlightPoint extends Point2D.Double implements Comparable<FlightPoint> {
+  final static int MIN_FRESH_POINTS = 24, FRESH_POINTS_PER_ENEMY = 16;
 
-    private final double m_danger, m_radians;
+  /**
+   * The number of best flightpoints carried over into the next search, where they are evaluated again.
+   */
+  final static int CARRIED_POINTS = 8;
 
-    /**
-     * The area which will be highly dangerous because they allows easy prediction of own movement.
-     */
-    public final static double PI_ENVIRONMENT = Math.PI / 9.0;
+  /**
+   * The number of flightpoints refining the best one found and their maximal distance towards it.
+   */
+  final static int REFINED_POINTS = 16;
+  final static double REFINE_RADIUS = 40;
 
-    /**
-     * Creates a new flypoint.
-     */
-    public FlightPoint(final Leg leg, final double radians, final int distance) {
-      super(leg.eureka.getX() + distance * Math.cos(radians), leg.eureka.getY() + distance * Math.sin(radians));
-      this.m_radians = radians;
-      this.m_danger = this.calculateDanger(leg);
-    }
+  /**
+   * The number of ticks the search for a flightpoint may take, before the best one found so far is used.
+   */
+  final static int MAX_SEARCH_TICKS = 3;
 
-    /**
-     * Returns the safety of this point.
-     * @return the safety of the point.
-     */
-    public double getDanger() {
-      return this.m_danger;
-    }
+  /**
+   * The number of flightpoints evaluated at once, before the budget is checked again.
+   */
+  final static int BATCH_SIZE = 8;
 
-    /**
-     * Returns the radians of player torwards this point.
-     * @return the direction.
-     */
-    public double getRadians() {
-      return this.m_radians;
-    }
+  /**
+   * The area which will be highly dangerous because they allows easy prediction of own movement.
+   */
+  public final static double PI_ENVIRONMENT = Math.PI / 9.0;
+
+  /**
+   * An event which is fired if a current movement is complete.
+   */
+  public static class MovementDone implements Signal.Event {
+  }
+
+  /**
+   * A event which is fired if this robot touches another.
+   */
+  public static class RobotHit implements Signal.GlobalEvent {
+    private robocode.HitRobotEvent m_hit;
 
     /**
-     * Compares a flypoint to another in terms of danger.
+     * Creates a new event.
+     * @param hit The hit.
      */
-    public int compareTo(final FlightPoint o) {
-      return (int) (this.m_danger - o.m_danger);
+    public RobotHit(robocode.HitRobotEvent hit) {
+      this.m_hit = hit;
     }
 
     /**
-     * Calculates the safety of a position.
+     * Returns the bearing of the hit.
+     * @return the bearing of the hit.
      */
-    private double calculateDanger(final Leg leg) {
-
-      // Checks if the flightpoint is outside the battlefield.
-      if (this.getX() < leg.eureka.getWidth() * leg.BorderDefinition
-          || this.getX() > leg.eureka.getBattleFieldWidth() - leg.eureka.getWidth() * leg.BorderDefinition
-          || this.getY() < leg.eureka.getHeight() * leg.BorderDefinition
-          || this.getY() > leg.eureka.getBattleFieldHeight() - leg.eureka.getHeight() * leg.BorderDefinition) {
-        return java.lang.Double.POSITIVE_INFINITY;
-      }
-
-      // Mark position linear from the current movement as dangerous
-      double bearingToRobot = HelperFunctions.bearing(leg.eureka, this);
-      if (bearingToRobot < PI_ENVIRONMENT || 2 * Math.PI - bearingToRobot < PI_ENVIRONMENT
-          || (bearingToRobot > Math.PI - PI_ENVIRONMENT && bearingToRobot < Math.PI + PI_ENVIRONMENT)) {
-        return java.lang.Double.POSITIVE_INFINITY;
-      }
-
-      // Cache the position of the robot
-      final Point2D.Double ownPos = leg.eureka.getPosition();
-
-      // Mark points nearby on the old position as dangerous
-      double result = 0.08 / (leg.m_lastFlightpoint != null ? this.distanceSq(leg.m_lastFlightpoint) : 1);
-
-      // Calculate the danger for enemies around, inspired by HawkOnFire (http://robowiki.net/wiki/HawkOnFire/Understanding_HawkOnFire)
-      for (Enemy e : leg.eureka.getEye().getCurrentEnemies()) {
-        result += e.getDanger() // The current danger of the enemy, ...
-            * (1 + Math
-                .abs(Math.cos(HelperFunctions.bearing(ownPos, this) - HelperFunctions.bearing(e.lastContact(), this)))) // ... rotation towards the enemy, ...
-            / this.distance(e.lastContact()) // ... its distance, ...
-            * (1 + leg.getEureka().getEye().getPerformance(e)); // ... and its performance in other battles.
-      }
-
-      return result;
+    public double getBearing() {
+      return this.m_hit.getBearingRadians();
     }
   }
 
   /**
-   * A event which is fired if this robot touches another.
+   * An event which is fired if the robot is hit by a bullet.
    */
-  public static class RobotHit implements Signal.GlobalEvent {
-    private robocode.HitRobotEvent m_hit;
+  public static class HitByBullet implements Signal.GlobalEvent {
+    private robocode.HitByBulletEvent m_hit;
 
     /**
      * Creates a new event.
      * @param hit The hit.
      */
-    public RobotHit(robocode.HitRobotEvent hit) {
+    public HitByBullet(robocode.HitByBulletEvent hit) {
       this.m_hit = hit;
     }
 
+    /**
+     * Returns the name of the robot which fired the bullet.
+     * @return the name.
+     */
+    public String getName() {
+      return this.m_hit.getName();
+    }
+
+    /**
+     * Returns the power of the bullet.
+     * @return the power.
+     */
+    public double getPower() {
+      return this.m_hit.getPower();
+    }
+
     /**
      * Returns the bearing of the hit.
      * @return the bearing of the hit.
@@ -191,8 +179,28 @@ public class Leg extends Component {
    */
   public final int MaximalMovement;
 
-  private FlightPoint[] m_flightPoints;
   private Point2D.Double m_lastFlightpoint;
+  private final MovementDone m_movementDone;
+  private int m_evaluated, m_searchTicks;
+
+  // The flightpoints in the order of their evaluation, their directions are fixed
+  private final double[] m_directionSin, m_directionCos;
+  private final double[] m_pointX, m_pointY, m_pointDanger;
+  private int m_points, m_best;
+
+  // The best flightpoints of the last search and the composition of the current one: carried, fresh and refined
+  private final double[] m_carriedX, m_carriedY, m_carriedDanger;
+  private int m_carried, m_fresh, m_target;
+  private double m_pointNanos;
+
+  // The risk caused by the enemies, updated whenever they are seen
+  private final RiskGrid m_risk;
+
+  // The state of the evaluation, refreshed in each tick of a search
+  private final MovementSimulator m_simulator;
+  private PredictionCache m_predictions;
+  private double m_ownX, m_ownY, m_heading, m_velocity, m_headingSin, m_headingCos, m_lastX, m_lastY;
+  private boolean m_hasLast;
 
   /**
    * Creates a new leg.
@@ -200,7 +208,22 @@ public class Leg extends Component {
   public Leg(final Eureka eureka) {
     super(eureka);
 
-    this.m_flightPoints = new FlightPoint[FLIGHT_POINTS];
+    // The directions of the flightpoints, spread evenly around the robot in the order of their evaluation
+    final double STEP = (2 * Math.PI) / FLIGHT_POINTS;
+    this.m_directionSin = new double[FLIGHT_POINTS];
+    this.m_directionCos = new double[FLIGHT_POINTS];
+    for (int k = 0; k < FLIGHT_POINTS; k++) {
+      final double radians = STEP / 2 + ((k * SEARCH_STRIDE) % FLIGHT_POINTS) * STEP;
+      this.m_directionSin[k] = Math.sin(radians);
+      this.m_directionCos[k] = Math.cos(radians);
+    }
+    this.m_pointX = new double[FLIGHT_POINTS];
+    this.m_pointY = new double[FLIGHT_POINTS];
+    this.m_pointDanger = new double[FLIGHT_POINTS];
+    this.m_carriedX = new double[CARRIED_POINTS];
+    this.m_carriedY = new double[CARRIED_POINTS];
+    this.m_carriedDanger = new double[CARRIED_POINTS];
+    this.m_simulator = new MovementSimulator(eureka.getBattleFieldWidth(), eureka.getBattleFieldHeight());
 
     // Loads the maximal movement - and check that it is bigger than the minimal movement.
     this.MaximalMovement = (int) eureka.getBrain().accessMemory("Leg/MaxMovement", new MaximumMovementParameter());
@@ -209,22 +232,265 @@ public class Leg extends Component {
     this.MinimalMovement = (int) eureka.getBrain().accessMemory("Leg/MinMovement", new MinimumMovementParameter());
 
     this.BorderDefinition = eureka.getBrain().accessMemory("Leg/Border", new Range(3, 1, 4, 0.5));
+    this.m_risk = new RiskGrid(eureka.getBattleFieldWidth(), eureka.getBattleFieldHeight(),
+        eureka.getWidth() * this.BorderDefinition, eureka.getHeight() * this.BorderDefinition);
+    this.m_movementDone = new MovementDone();
+    this.m_evaluated = -1;
+
+    // Register the handlers of the signals
+    this.subscribe(Brain.Move.class, this::handleMove);
+    this.subscribe(Leg.RobotHit.class, this::handleRobotHit);
+    this.subscribe(Eye.RobotNearby.class, this::handleRobotNearby);
   }
 
   /**
-   * Flight to an optimal safe point in range.
+   * Flight to an optimal safe point in range. The search is done in the following ticks within their budget: The best
+   * points of the last search are evaluated again first, followed by fresh ones around and by ones refining the best.
    */
   protected void flight() {
-    // Generate random points around
-    final double STEP = (2 * Math.PI) / FLIGHT_POINTS;
-    for (int i = 0; i < FLIGHT_POINTS; i++) {
-      int distance = Utils.getRandom().nextInt(this.MaximalMovement - this.MinimalMovement) + this.MinimalMovement;
-      this.m_flightPoints[i] = new FlightPoint(this, STEP / 2 + i * STEP, distance);
+    this.m_points = 0;
+    this.m_best = -1;
+    this.m_evaluated = 0;
+    this.m_searchTicks = 0;
+  }
+
+  /**
+   * Continues the search for a flightpoint and moves there if it is complete or takes too long.
+   */
+  @Override
+  public void plan(final Budget budget) {
+    this.updateRisk();
+    if (this.m_evaluated < 0) {
+      return;
+    }
+
+    // Evaluate the points in batches, at least one for progress
+    this.m_searchTicks++;
+    this.prepareEvaluation();
+    if (this.m_searchTicks == 1) {
+      this.startSearch(budget);
+    }
+    final long start = System.nanoTime();
+    final int first = this.m_evaluated;
+    do {
+      final int from = this.m_evaluated, to = Math.min(this.m_target, from + BATCH_SIZE);
+      for (int k = Math.max(from, this.m_points); k < to; k++) {
+        this.samplePoint(k);
+      }
+      this.m_points = Math.max(this.m_points, to);
+      this.evaluate(from, to);
+
+      // Keep the point with minimal danger
+      for (int k = from; k < to; k++) {
+        if (this.m_best < 0 || this.m_pointDanger[k] < this.m_pointDanger[this.m_best]) {
+          this.m_best = k;
+        }
+      }
+      this.m_evaluated = to;
+    } while (this.m_evaluated < this.m_target && !budget.isExhausted());
+    final double pointNanos = (System.nanoTime() - start) / (double) (this.m_evaluated - first);
+    this.m_pointNanos = this.m_pointNanos > 0 ? (this.m_pointNanos + pointNanos) / 2 : pointNanos;
+
+    if (this.m_evaluated == this.m_target || this.m_searchTicks >= MAX_SEARCH_TICKS) {
+      this.m_evaluated = -1;
+      this.carryPoints();
+      this.move(this.m_pointX[this.m_best], this.m_pointY[this.m_best]);
+    }
+  }
+
+  /**
+   * Composes a new search: The carried points still in range come first, followed by fresh ones depending on the
+   * number of enemies, as many as the time left allows in the ticks of the search, and by the refining ones.
+   * @param budget The budget of the first tick.
+   */
+  private void startSearch(final Budget budget) {
+    int points = 0;
+    for (int c = 0; c < this.m_carried; c++) {
+      final double distance = Point2D.distance(this.m_ownX, this.m_ownY, this.m_carriedX[c], this.m_carriedY[c]);
+      if (distance >= this.MinimalMovement && distance <= this.MaximalMovement) {
+        this.m_carriedX[points] = this.m_pointX[points] = this.m_carriedX[c];
+        this.m_carriedY[points] = this.m_pointY[points] = this.m_carriedY[c];
+        points++;
+      }
+    }
+    this.m_carried = points;
+    this.m_points = points;
+
+    int fresh = MIN_FRESH_POINTS + FRESH_POINTS_PER_ENEMY * this.m_predictions.size();
+    if (this.m_pointNanos > 0) {
+      final double affordable = budget.remaining() * (double) MAX_SEARCH_TICKS / this.m_pointNanos;
+      fresh = (int) Math.min(fresh, affordable - points - REFINED_POINTS);
+    }
+    this.m_fresh = Math.max(MIN_FRESH_POINTS, Math.min(fresh, FLIGHT_POINTS - points - REFINED_POINTS));
+    this.m_target = points + this.m_fresh + REFINED_POINTS;
+  }
+
+  /**
+   * Places a flightpoint of the search. Fresh points have a random distance in the next direction, refining ones are
+   * placed randomly around the best point so far within a radius, which shrinks towards the end of the search.
+   * @param k The index of the flightpoint, behind the carried ones.
+   */
+  private void samplePoint(final int k) {
+    final int refined = k - this.m_carried - this.m_fresh;
+    if (refined >= 0 && this.m_best >= 0 && this.m_pointDanger[this.m_best] != Double.POSITIVE_INFINITY) {
+      final double radius = REFINE_RADIUS * (REFINED_POINTS - refined) / REFINED_POINTS
+          * Utils.getRandom().nextDouble();
+      final double radians = 2 * Math.PI * Utils.getRandom().nextDouble();
+      this.m_pointX[k] = this.m_pointX[this.m_best] + radius * Math.sin(radians);
+      this.m_pointY[k] = this.m_pointY[this.m_best] + radius * Math.cos(radians);
+      return;
     }
 
-    // Find the point with minimal danger
-    FlightPoint min = Collections.min(Arrays.asList(this.m_flightPoints));
-    this.move(min);
+    // Without any safe point so far, the refinement continues with fresh points
+    final int direction = k - this.m_carried;
+    final int distance = Utils.getRandom().nextInt(this.MaximalMovement - this.MinimalMovement)
+        + this.MinimalMovement;
+    this.m_pointX[k] = this.m_ownX + distance * this.m_directionCos[direction];
+    this.m_pointY[k] = this.m_ownY + distance * this.m_directionSin[direction];
+  }
+
+  /**
+   * Keeps the safe flightpoints with minimal danger for the next search, sorted by their danger.
+   */
+  private void carryPoints() {
+    this.m_carried = 0;
+    for (int k = 0; k < this.m_points; k++) {
+      final double danger = this.m_pointDanger[k];
+      if (danger == Double.POSITIVE_INFINITY
+          || (this.m_carried == CARRIED_POINTS && danger >= this.m_carriedDanger[CARRIED_POINTS - 1])) {
+        continue;
+      }
+
+      // Insert the point, dropping the worst one if all are taken
+      int c = Math.min(this.m_carried, CARRIED_POINTS - 1);
+      for (; c > 0 && this.m_carriedDanger[c - 1] > danger; c--) {
+        this.m_carriedX[c] = this.m_carriedX[c - 1];
+        this.m_carriedY[c] = this.m_carriedY[c - 1];
+        this.m_carriedDanger[c] = this.m_carriedDanger[c - 1];
+      }
+      this.m_carriedX[c] = this.m_pointX[k];
+      this.m_carriedY[c] = this.m_pointY[k];
+      this.m_carriedDanger[c] = danger;
+      this.m_carried = Math.min(this.m_carried + 1, CARRIED_POINTS);
+    }
+  }
+
+  /**
+   * Copies the state the danger depends on into the buffers of the evaluation.
+   */
+  private void prepareEvaluation() {
+    this.m_ownX = this.eureka.getX();
+    this.m_ownY = this.eureka.getY();
+    this.m_heading = this.eureka.getHeadingRadians();
+    this.m_velocity = this.eureka.getVelocity();
+    this.m_headingSin = Math.sin(this.m_heading);
+    this.m_headingCos = Math.cos(this.m_heading);
+    this.m_hasLast = this.m_lastFlightpoint != null;
+    if (this.m_hasLast) {
+      this.m_lastX = this.m_lastFlightpoint.getX();
+      this.m_lastY = this.m_lastFlightpoint.getY();
+    }
+    this.m_predictions = this.eureka.getEye().getPredictions();
+    this.m_risk.predict(this.m_predictions);
+  }
+
+  /**
+   * Updates the risk of the enemies seen in this tick and removes the ones which died or got lost.
+   */
+  private void updateRisk() {
+    final long turn = this.eureka.getTime();
+    for (int i = this.m_risk.size() - 1; i >= 0; i--) {
+      final Enemy enemy = this.m_risk.getEnemy(i);
+      if (!enemy.isAlive() || enemy.lastContact().getTurn() < turn - Eye.TURN_THRESHOLD) {
+        this.m_risk.remove(enemy);
+      }
+    }
+
+    final EnemySnapshot enemies = this.eureka.getEye().getSnapshot();
+    for (int j = 0; j < enemies.size(); j++) {
+      final Enemy enemy = enemies.getEnemy(j);
+      if (enemy.lastContact().getTurn() == turn || !this.m_risk.contains(enemy)) {
+        this.m_risk.update(enemy, enemies.getX(j), enemies.getY(j),
+            enemies.getDanger(j) * (1 + enemies.getPerformance(j)));
+      }
+    }
+  }
+
+  /**
+   * Calculates the danger of a range of flightpoints. The path towards each of them is simulated tick by tick: Paths
+   * which hit a wall, run into the predicted position of an enemy or take too long are dangerous. Otherwise, the danger
+   * is the risk along the path, interpolated from the risk grid, plus the danger at the point of arrival, which is
+   * sampled with the exact contribution of the enemies nearby at their predicted position on arrival.
+   * @param from The first flightpoint.
+   * @param to The end of the range, exclusive.
+   */
+  private void evaluate(final int from, final int to) {
+    final double environment = Math.sin(PI_ENVIRONMENT);
+    final double collision = 2 * VirtualGuns.ROBOT_RADIUS;
+    final int enemies = this.m_predictions.size();
+    for (int k = from; k < to; k++) {
+      final double targetX = this.m_pointX[k], targetY = this.m_pointY[k];
+
+      // Checks if the flightpoint is outside the battlefield.
+      if (!this.m_risk.isAllowed(targetX, targetY)) {
+        this.m_pointDanger[k] = Double.POSITIVE_INFINITY;
+        continue;
+      }
+
+      // Mark position linear from the current movement as dangerous, i.e. ahead or behind the robot
+      final double targetDx = targetX - this.m_ownX, targetDy = targetY - this.m_ownY;
+      if (Math.abs(targetDx * this.m_headingCos - targetDy * this.m_headingSin) < environment
+          * Math.sqrt(targetDx * targetDx + targetDy * targetDy)) {
+        this.m_pointDanger[k] = Double.POSITIVE_INFINITY;
+        continue;
+      }
+
+      // Drive along the path and sum up the risk, until the robot arrives
+      double exposure = 0;
+      boolean blocked = false;
+      this.m_simulator.start(this.m_ownX, this.m_ownY, this.m_heading, this.m_velocity, targetX, targetY);
+      while (!blocked && this.m_simulator.step()) {
+        final int tick = Math.min(this.m_simulator.getTick(), PredictionCache.HORIZON);
+        final double x = this.m_simulator.getX(), y = this.m_simulator.getY();
+        blocked = this.m_simulator.isWallHit() || this.m_simulator.getTick() > PredictionCache.HORIZON;
+        for (int j = 0; j < enemies && !blocked; j++) {
+          blocked = Math.abs(x - this.m_predictions.getX(j, tick)) < collision
+              && Math.abs(y - this.m_predictions.getY(j, tick)) < collision;
+        }
+        exposure += this.m_risk.interpolateRisk(x, y);
+      }
+      if (blocked) {
+        this.m_pointDanger[k] = Double.POSITIVE_INFINITY;
+        continue;
+      }
+
+      // The point of arrival, which might differ from the flightpoint as the robot turns while driving
+      final double x = this.m_simulator.getX(), y = this.m_simulator.getY();
+      final double ownDx = x - this.m_ownX, ownDy = y - this.m_ownY;
+
+      // Mark points nearby on the old position as dangerous and add the average risk along the path
+      double result = 0.08d;
+      if (this.m_hasLast) {
+        result /= (x - this.m_lastX) * (x - this.m_lastX) + (y - this.m_lastY) * (y - this.m_lastY);
+      }
+      result += exposure / Math.max(1, this.m_simulator.getTick());
+
+      // Calculate the danger for enemies around, inspired by HawkOnFire (http://robowiki.net/wiki/HawkOnFire/Understanding_HawkOnFire):
+      // Their danger and performance divided by their distance at the tick of arrival, increased by the rotation of
+      // the own path towards them, which is rated by the tensor of the grid.
+      this.m_risk.sample(x, y, this.m_simulator.getTick());
+      result += this.m_risk.getRisk() + this.m_risk.getRotation(ownDx, ownDy);
+      this.m_pointDanger[k] = result;
+    }
+  }
+
+  /**
+   * Checks if the leg is moving or searching for a flightpoint.
+   * @return True if a operation is going on.
+   */
+  @Override
+  public boolean isBusy() {
+    return super.isBusy() || this.m_evaluated >= 0;
   }
 
   @Override
@@ -232,6 +498,7 @@ public class Leg extends Component {
    * Aborts the current movement.
    */
   public void stop() {
+    this.m_evaluated = -1;
     if (this.isBusy()) {
       this.eureka.stop();
     }
@@ -241,63 +508,67 @@ public class Leg extends Component {
   @Override
   public void drawDebug(Graphics2D g) {
 
-    for (Leg.FlightPoint flypoint : this.m_flightPoints) {
-      if (flypoint != null) {
-        g.setColor(flypoint.m_danger != Double.POSITIVE_INFINITY ? java.awt.Color.RED : java.awt.Color.GRAY);
-        g.fillOval((int) flypoint.getX() - 8, (int) flypoint.getY() - 8, 8, 8);
-      }
+    for (int k = 0; k < this.m_points; k++) {
+      g.setColor(this.m_pointDanger[k] != Double.POSITIVE_INFINITY ? java.awt.Color.RED : java.awt.Color.GRAY);
+      g.fillOval((int) this.m_pointX[k] - 8, (int) this.m_pointY[k] - 8, 8, 8);
     }
   }
 
-  @Override
-  protected void handleCommand(Command command) {
-    if (command instanceof Brain.Move) {
-      this.flight();
-    }
+  /**
+   * Flies to a new position.
+   */
+  private void handleMove(final Brain.Move command) {
+    this.flight();
   }
 
   @Override
   protected void handleOperationDone(CustomEvent event) {
-    this.sendSignal(new MovementDone());
+    this.sendSignal(this.m_movementDone);
   }
 
-  @Override
-  protected void handleEvent(Signal.Event event) {
-    if (event instanceof Leg.RobotHit) {
-      // Fly if eureka hits a robot ...
-      this.m_lastFlightpoint = this.eureka.getPosition();
+  /**
+   * Flies if eureka hits a robot ...
+   */
+  private void handleRobotHit(final Leg.RobotHit event) {
+    this.m_lastFlightpoint = this.eureka.getPosition();
+    this.stop();
+    this.move(-15);
+  }
+
+  /**
+   * ... or it nearby one.
+   */
+  private void handleRobotNearby(final Eye.RobotNearby event) {
+    Point2D.Double position = event.getRobot().lastContact();
+    double bearing = HelperFunctions.bearing(this.eureka, position);
+    if (position.distance(this.eureka.getPosition()) < 20 && (bearing > 340 || bearing < 20)) {
+      this.m_lastFlightpoint = new Point2D.Double(position.getX(), position.getY());
       this.stop();
       this.move(-15);
-    } else if (event instanceof Eye.RobotNearby) {
-      // ... or it nearby one.
-      Point2D.Double position = ((Eye.RobotNearby) event).getRobot().lastContact();
-      double bearing = HelperFunctions.bearing(this.eureka, position);
-      if (position.distance(this.eureka.getPosition()) < 20 && (bearing > 340 || bearing < 20)) {
-        this.m_lastFlightpoint = position;
-        this.stop();
-        this.move(-15);
-      }
     }
   }
 
   /**
    * Moves to a specific point.
-   * @param target The point to move to. 
+   * @param targetX The x coordinate of the point to move to.
+   * @param targetY The y coordinate of the point to move to.
    */
-  protected void move(final FlightPoint target) {
+  protected void move(final double targetX, final double targetY) {
     // Check that the robot does not drive against the wall
-    double x = Math.min(Math.max(eureka.getWidth(), target.getX()), eureka.getBattleFieldWidth() - eureka.getWidth());
-    double y = Math.min(Math.max(eureka.getHeight(), target.getY()),
+    final double x = Math.min(Math.max(eureka.getWidth(), targetX), eureka.getBattleFieldWidth() - eureka.getWidth());
+    final double y = Math.min(Math.max(eureka.getHeight(), targetY),
         eureka.getBattleFieldHeight() - eureka.getHeight());
 
-    this.m_lastFlightpoint = target;
-
-    // Adapted from http://old.robowiki.net/robowiki?Movement/CodeSnippetBasicGoTo
-    double a;
-    this.eureka.setTurnRightRadians(
-        Math.tan(a = Math.atan2(x -= (int) eureka.getX(), y -= (int) eureka.getY()) - eureka.getHeadingRadians()));
+    if (this.m_lastFlightpoint == null) {
+      this.m_lastFlightpoint = new Point2D.Double(targetX, targetY);
+    } else {
+      this.m_lastFlightpoint.setLocation(targetX, targetY);
+    }
 
-    this.move(Math.hypot(x, y) * Math.cos(a));
+    // Turn towards the point, either forwards or backwards, as the evaluation simulated it
+    final double heading = this.eureka.getHeadingRadians();
+    this.eureka.setTurnRightRadians(MovementSimulator.getTurn(this.eureka.getX(), this.eureka.getY(), heading, x, y));
+    this.move(MovementSimulator.getDistance(this.eureka.getX(), this.eureka.getY(), heading, x, y));
   }
 
   /**
@@ -0,0 +1,63 @@
+package eureka.config;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.function.Supplier;
+
+/**
+ * A cache of loaded state which survives between the rounds of a battle, avoiding to load the files every round.
+ */
+public final class BattleCache {
+    private static final HashMap<String, Object> entries = new HashMap<String, Object>();
+    private static File directory = null;
+    private static int round = -1;
+    private static int rounds = -1;
+
+    private BattleCache() {
+    }
+
+    /**
+     * Announces the start of a round. If it belongs to a new battle, all entries are dropped.
+     * @param dataDirectory The data directory of the robot.
+     * @param currentRound The index of the current round.
+     * @param numberOfRounds The overall number of rounds in the battle.
+     */
+    public static void enterRound(final File dataDirectory, final int currentRound, final int numberOfRounds) {
+        if (currentRound <= BattleCache.round || numberOfRounds != BattleCache.rounds
+                || !dataDirectory.equals(BattleCache.directory)) {
+            BattleCache.invalidate();
+        }
+
+        BattleCache.directory = dataDirectory;
+        BattleCache.round = currentRound;
+        BattleCache.rounds = numberOfRounds;
+    }
+
+    /**
+     * Gets a cached value or loads it, if this is the first access in this battle.
+     * @param key The unique key of the value.
+     * @param loader The function loading the value, which may not return 'null'.
+     * @return the cached value.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(final String key, final Supplier<T> loader) {
+        Object value = BattleCache.entries.get(key);
+        if (value == null) {
+            if ((value = loader.get()) == null) {
+                throw new IllegalArgumentException("Loader returned null");
+            }
+            BattleCache.entries.put(key, value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Drops all cached values.
+     */
+    public static void invalidate() {
+        BattleCache.entries.clear();
+        BattleCache.directory = null;
+        BattleCache.round = -1;
+        BattleCache.rounds = -1;
+    }
+}
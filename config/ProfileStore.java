@@ -0,0 +1,311 @@
+package eureka.config;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import robocode.RobocodeFileOutputStream;
+
+/**
+ * A persistent store of fixed-size profiles, i.e. a number of values for each key, which are loaded lazily.
+ * The file consists of a header, a small sorted index of keys and fixed-size records following them. Only the index
+ * is decoded on opening, while the records are kept as raw bytes and only decoded on first access of a profile. The file
+ * is not mapped into memory, as a live mapping prevents rewriting it on some platforms.
+ */
+public class ProfileStore {
+
+    /**
+     * A single profile, consisting of a fixed number of values.
+     */
+    public static class Profile {
+        private final double[] m_values;
+        private int m_record;
+        private boolean m_changed;
+
+        /**
+         * Creates a new profile.
+         * @param fields The number of values.
+         * @param record The index of the record in the file or -1, if not existing.
+         */
+        private Profile(final int fields, final int record) {
+            this.m_values = new double[fields];
+            this.m_record = record;
+            this.m_changed = false;
+        }
+
+        /**
+         * Returns a value of the profile.
+         * @param field The index of the value.
+         * @return the value.
+         */
+        public double get(final int field) {
+            return this.m_values[field];
+        }
+
+        /**
+         * Sets a value of the profile and marks it as changed.
+         * @param field The index of the value.
+         * @param value The new value.
+         */
+        public void set(final int field, final double value) {
+            this.m_values[field] = value;
+            this.m_changed = true;
+        }
+
+        /**
+         * Returns the number of values in this profile.
+         * @return the number of values.
+         */
+        public int size() {
+            return this.m_values.length;
+        }
+    }
+
+    /**
+     * The marker at the beginning of each valid file.
+     */
+    private final static int MAGIC = 0x45505246;
+
+    /**
+     * The size of the header: Magic, number of keys, number of fields and the offset of the records.
+     */
+    private final static int HEADER_SIZE = 16;
+
+    private final int m_fields;
+    private final HashMap<String, Profile> m_loaded;
+    private String[] m_keys;
+    private int m_storedFields;
+    private ByteBuffer m_records;
+    private int m_offset;
+    private File m_file;
+
+    /**
+     * Creates a new, empty store.
+     * @param fields The number of values in each profile.
+     */
+    public ProfileStore(final int fields) {
+        this.m_fields = fields;
+        this.m_loaded = new HashMap<String, Profile>();
+        this.m_keys = new String[0];
+        this.m_storedFields = fields;
+        this.m_records = null;
+        this.m_offset = 0;
+        this.m_file = null;
+    }
+
+    /**
+     * Opens the store from a file. Only the index is decoded, the records are read as raw bytes.
+     * @param path The path to the file.
+     * @param fields The number of values in each profile. Stored profiles with a different size get adapted.
+     */
+    public ProfileStore(final File path, final int fields) throws IllegalArgumentException {
+        this(fields);
+        try {
+            this.open(path);
+        } catch (Exception e) {
+            System.err.printf("[Error] Unable to load profiles '%s' (%s)\n", path.getAbsolutePath(), e.getMessage());
+            throw new IllegalArgumentException("Loading failed");
+        }
+    }
+
+    /**
+     * Tries to open the store.
+     * @param file The file which might be opened.
+     * @param fields The number of values in each profile.
+     * @return the store or 'null' on failure.
+     */
+    public static ProfileStore load(final File file, final int fields) {
+        // Check the file exists
+        if (file.isFile()) {
+            try {
+                return new ProfileStore(file, fields);
+            } catch (Exception ex) {
+                return null;
+            }
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a profile, which is loaded from the file on first access or created with zero values if not existing.
+     * @param name The key of the profile.
+     * @return the profile.
+     */
+    public Profile getProfile(final String name) {
+        Profile profile = this.m_loaded.get(name);
+        if (profile == null) {
+            final int record = Arrays.binarySearch(this.m_keys, name);
+            profile = new Profile(this.m_fields, record >= 0 ? record : -1);
+            if (record >= 0) {
+                this.readRecord(record, profile.m_values);
+            }
+            this.m_loaded.put(name, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Checks if a profile is known, either loaded or stored in the file.
+     * @param name The key of the profile.
+     * @return true if the profile exists.
+     */
+    public boolean contains(final String name) {
+        return this.m_loaded.containsKey(name) || Arrays.binarySearch(this.m_keys, name) >= 0;
+    }
+
+    /**
+     * Saves the store. If possible, changed records are written back in place. Otherwise, i.e. if new profiles were
+     * added or the file may not be opened for random access as in the sandbox of Robocode, the whole file is rewritten.
+     * @param file The file which is to be written.
+     */
+    public void save(final File file) throws IOException {
+        if (file.equals(this.m_file) && this.m_storedFields == this.m_fields && this.saveInPlace()) {
+            return;
+        }
+
+        // Merge the index with the new profiles, guarantee order by using a TreeMap
+        final TreeMap<String, double[]> all = new TreeMap<String, double[]>();
+        for (int i = 0; i < this.m_keys.length; i++) {
+            if (!this.m_loaded.containsKey(this.m_keys[i])) {
+                final double[] values = new double[this.m_fields];
+                this.readRecord(i, values);
+                all.put(this.m_keys[i], values);
+            }
+        }
+        for (Map.Entry<String, Profile> entry : this.m_loaded.entrySet()) {
+            all.put(entry.getKey(), entry.getValue().m_values);
+        }
+
+        // Calculate the offset of the records, aligned to the size of the values
+        final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(index)) {
+            for (String key : all.keySet()) {
+                dos.writeUTF(key);
+            }
+        }
+        final int offset = (HEADER_SIZE + index.size() + 7) & ~7;
+
+        // Guarantee closing of file by using try(closeable)
+        try (RobocodeFileOutputStream fos = new RobocodeFileOutputStream(file);
+                DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(all.size());
+            dos.writeInt(this.m_fields);
+            dos.writeInt(offset);
+            index.writeTo(dos);
+            for (int i = HEADER_SIZE + index.size(); i < offset; i++) {
+                dos.writeByte(0);
+            }
+            for (double[] values : all.values()) {
+                for (double value : values) {
+                    dos.writeDouble(value);
+                }
+            }
+        }
+
+        // Link the loaded profiles with their new records
+        this.open(file);
+        for (Map.Entry<String, Profile> entry : this.m_loaded.entrySet()) {
+            entry.getValue().m_record = Arrays.binarySearch(this.m_keys, entry.getKey());
+            entry.getValue().m_changed = false;
+        }
+    }
+
+    /**
+     * Writes the changed profiles back into their records.
+     * @return false, if there are profiles without record or the file may not be opened for random access.
+     */
+    private boolean saveInPlace() throws IOException {
+        for (Profile profile : this.m_loaded.values()) {
+            if (profile.m_record < 0) {
+                return false;
+            }
+        }
+
+        // Random access is only allowed outside of the sandbox
+        RandomAccessFile raf;
+        try {
+            raf = new RandomAccessFile(this.m_file, "rw");
+        } catch (SecurityException | IOException ex) {
+            return false;
+        }
+
+        // Guarantee closing of file by using try(closeable)
+        try (RandomAccessFile output = raf) {
+            final byte[] record = new byte[this.m_fields * Double.BYTES];
+            final ByteBuffer buffer = ByteBuffer.wrap(record);
+            for (Profile profile : this.m_loaded.values()) {
+                if (profile.m_changed) {
+                    final int position = this.m_offset + profile.m_record * this.m_storedFields * Double.BYTES;
+                    buffer.clear();
+                    for (int i = 0; i < this.m_fields; i++) {
+                        buffer.putDouble(profile.m_values[i]);
+                        this.m_records.putDouble(position + i * Double.BYTES, profile.m_values[i]);
+                    }
+                    output.seek(position);
+                    output.write(record);
+                    profile.m_changed = false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a file at once and decodes its index.
+     * @param file The file.
+     */
+    private void open(final File file) throws IOException {
+        // Guarantee closing of file by using try(closeable), nothing refers to the file afterwards
+        final byte[] content;
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            final long length = file.length();
+            if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+                throw new IOException("Invalid file");
+            }
+            content = new byte[(int) length];
+            dis.readFully(content);
+        }
+
+        final ByteBuffer records = ByteBuffer.wrap(content);
+        if (records.getInt() != MAGIC) {
+            throw new IOException("Invalid file");
+        }
+        final int count = records.getInt(), fields = records.getInt(), offset = records.getInt();
+        if (count < 0 || fields < 0 || offset < HEADER_SIZE
+                || (long) offset + (long) count * fields * Double.BYTES > records.limit()) {
+            throw new IOException("Invalid file");
+        }
+
+        // Read the index
+        final String[] keys = new String[count];
+        try (DataInputStream dis = new DataInputStream(
+                new ByteArrayInputStream(content, HEADER_SIZE, offset - HEADER_SIZE))) {
+            for (int i = 0; i < count; i++) {
+                keys[i] = dis.readUTF();
+            }
+        }
+
+        this.m_records = records;
+        this.m_offset = offset;
+        this.m_keys = keys;
+        this.m_storedFields = fields;
+        this.m_file = file;
+    }
+
+    /**
+     * Reads a record from the bytes of the file.
+     * @param record The index of the record.
+     * @param values The destination, values not stored are left untouched.
+     */
+    private void readRecord(final int record, final double[] values) {
+        final int position = this.m_offset + record * this.m_storedFields * Double.BYTES;
+        for (int i = 0; i < Math.min(values.length, this.m_storedFields); i++) {
+            values[i] = this.m_records.getDouble(position + i * Double.BYTES);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package eureka.helper;
+
+/**
+ * A budget of computation time, which allows work to be stopped early and continued in the next tick.
+ */
+public class Budget {
+    private long m_deadline;
+
+    /**
+     * Creates an already exhausted budget.
+     */
+    public Budget() {
+        this.m_deadline = System.nanoTime();
+    }
+
+    /**
+     * Starts the budget.
+     * @param nanoseconds The time available from now on.
+     * @return the budget.
+     */
+    public Budget start(final long nanoseconds) {
+        this.m_deadline = System.nanoTime() + nanoseconds;
+        return this;
+    }
+
+    /**
+     * Returns the time left.
+     * @return the remaining nanoseconds, which might be negative if exceeded.
+     */
+    public long remaining() {
+        return this.m_deadline - System.nanoTime();
+    }
+
+    /**
+     * Checks if the time is up.
+     * @return true, if no time is left.
+     */
+    public boolean isExhausted() {
+        return this.remaining() <= 0;
+    }
+}
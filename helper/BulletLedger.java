@@ -0,0 +1,280 @@
+package eureka.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import robocode.Bullet;
+
+import eureka.config.ProfileStore;
+
+/**
+ * A ledger of the fired bullets, which correlates each of them with its outcome. The resolved shots are counted per
+ * opponent, per power and per distance of the target, such that the hit rate of each of them is known. The counters
+ * of an opponent are stored in its profile, the ones of all opponents together in the profile 'TOTAL'.
+ */
+public class BulletLedger {
+
+    /**
+     * The maximal number of bullets in the air at once. Further ones are not tracked.
+     */
+    public final static int CAPACITY = 32;
+
+    /**
+     * The number of buckets of the power and of the distance as well as the size of the latter.
+     */
+    public final static int POWER_BUCKETS = 3, DISTANCE_BUCKETS = 6;
+    public final static double DISTANCE_BUCKET_SIZE = 200;
+
+    /**
+     * The fields of the profiles: The number of shots and hits, the ones per power and distance bucket, the number of
+     * hits received and the damage received.
+     */
+    public final static int FIELD_SHOTS = 0, FIELD_HITS = 1, FIELD_POWER_SHOTS = 2,
+            FIELD_POWER_HITS = FIELD_POWER_SHOTS + POWER_BUCKETS,
+            FIELD_DISTANCE_SHOTS = FIELD_POWER_HITS + POWER_BUCKETS,
+            FIELD_DISTANCE_HITS = FIELD_DISTANCE_SHOTS + DISTANCE_BUCKETS,
+            FIELD_RECEIVED = FIELD_DISTANCE_HITS + DISTANCE_BUCKETS, FIELD_DAMAGE = FIELD_RECEIVED + 1,
+            FIELDS = FIELD_DAMAGE + 1;
+
+    /**
+     * The name of the profile of all opponents together, which is no valid name of a robot.
+     */
+    public final static String TOTAL = "*";
+
+    /**
+     * The outcome of a bullet.
+     */
+    public final static int MISSED = 0, HIT = 1, DESTROYED = 2;
+
+    private final ProfileStore m_statistics;
+
+    // The bullets in the air
+    private final Bullet[] m_bullets;
+    private final String[] m_targets;
+    private final double[] m_distances;
+    private final long[] m_turns;
+    private int m_open;
+
+    // The bullet resolved last
+    private String m_target;
+    private double m_power, m_distance;
+    private long m_flightTime;
+
+    /**
+     * Creates an empty ledger.
+     * @param statistics The store of the statistics of the opponents with 'FIELDS' values.
+     */
+    public BulletLedger(final ProfileStore statistics) {
+        this.m_statistics = statistics;
+        this.m_bullets = new Bullet[CAPACITY];
+        this.m_targets = new String[CAPACITY];
+        this.m_distances = new double[CAPACITY];
+        this.m_turns = new long[CAPACITY];
+        this.m_open = 0;
+    }
+
+    /**
+     * Notes a fired bullet.
+     * @param bullet The bullet, might be null if it was not fired.
+     * @param target The base name of the enemy aimed at or null, if fired into a direction.
+     * @param distance The distance of the target.
+     * @param turn The turn of firing.
+     * @return false, if the bullet is not tracked.
+     */
+    public boolean fired(final Bullet bullet, final String target, final double distance, final long turn) {
+        if (bullet == null || target == null || this.m_open == CAPACITY) {
+            return false;
+        }
+
+        final int i = this.m_open++;
+        this.m_bullets[i] = bullet;
+        this.m_targets[i] = target;
+        this.m_distances[i] = distance;
+        this.m_turns[i] = turn;
+        return true;
+    }
+
+    /**
+     * Resolves a bullet by its outcome and counts it. The details are accessible by the getters afterwards.
+     * @param bullet The bullet.
+     * @param outcome The outcome: 'MISSED', 'HIT' or 'DESTROYED' by another bullet, which is not counted.
+     * @param victim The base name of the robot hit or null.
+     * @param turn The current turn.
+     * @return false, if the bullet was not tracked.
+     */
+    public boolean resolve(final Bullet bullet, final int outcome, final String victim, final long turn) {
+        int i = 0;
+        while (i < this.m_open && !this.m_bullets[i].equals(bullet)) {
+            i++;
+        }
+        if (i == this.m_open) {
+            return false;
+        }
+
+        this.m_target = this.m_targets[i];
+        this.m_power = bullet.getPower();
+        this.m_distance = this.m_distances[i];
+        this.m_flightTime = turn - this.m_turns[i];
+
+        // Fill the gap by the last bullet
+        final int last = --this.m_open;
+        this.m_bullets[i] = this.m_bullets[last];
+        this.m_targets[i] = this.m_targets[last];
+        this.m_distances[i] = this.m_distances[last];
+        this.m_turns[i] = this.m_turns[last];
+        this.m_bullets[last] = null;
+        this.m_targets[last] = null;
+
+        if (outcome != DESTROYED) {
+            final boolean hit = outcome == HIT && this.m_target.equals(victim);
+            this.count(this.m_statistics.getProfile(this.m_target), hit);
+            this.count(this.m_statistics.getProfile(TOTAL), hit);
+        }
+        return true;
+    }
+
+    /**
+     * Notes a bullet of an opponent which hit.
+     * @param opponent The base name of the opponent.
+     * @param damage The damage caused.
+     */
+    public void received(final String opponent, final double damage) {
+        this.countReceived(this.m_statistics.getProfile(opponent), damage);
+        this.countReceived(this.m_statistics.getProfile(TOTAL), damage);
+    }
+
+    /**
+     * Forgets the bullets in the air, i.e. at the end of a round.
+     */
+    public void clear() {
+        Arrays.fill(this.m_bullets, 0, this.m_open, null);
+        Arrays.fill(this.m_targets, 0, this.m_open, null);
+        this.m_open = 0;
+    }
+
+    /**
+     * Saves the statistics.
+     * @param file The file which is to be written.
+     */
+    public void save(final File file) throws IOException {
+        this.m_statistics.save(file);
+    }
+
+    /**
+     * Returns the number of bullets in the air.
+     * @return the number of bullets tracked.
+     */
+    public int getOpen() {
+        return this.m_open;
+    }
+
+    /**
+     * Returns the target of the bullet resolved last.
+     * @return the base name of the enemy.
+     */
+    public String getTarget() {
+        return this.m_target;
+    }
+
+    /**
+     * Returns the power of the bullet resolved last.
+     * @return the power.
+     */
+    public double getPower() {
+        return this.m_power;
+    }
+
+    /**
+     * Returns the distance of the target of the bullet resolved last on firing.
+     * @return the distance.
+     */
+    public double getDistance() {
+        return this.m_distance;
+    }
+
+    /**
+     * Returns the number of ticks the bullet resolved last was in the air.
+     * @return the flight time.
+     */
+    public long getFlightTime() {
+        return this.m_flightTime;
+    }
+
+    /**
+     * Returns the rate of hits of an opponent.
+     * @param opponent The base name of the opponent or 'TOTAL'.
+     * @return the rate within [0, 1], zero if no shot was resolved yet.
+     */
+    public double getHitRate(final String opponent) {
+        final ProfileStore.Profile profile = this.m_statistics.getProfile(opponent);
+        return getRate(profile.get(FIELD_HITS), profile.get(FIELD_SHOTS));
+    }
+
+    /**
+     * Returns the rate of hits of an opponent with bullets of a power.
+     * @param opponent The base name of the opponent or 'TOTAL'.
+     * @param power The power of the bullets.
+     * @return the rate within [0, 1], zero if no shot was resolved yet.
+     */
+    public double getPowerHitRate(final String opponent, final double power) {
+        final ProfileStore.Profile profile = this.m_statistics.getProfile(opponent);
+        final int bucket = getPowerBucket(power);
+        return getRate(profile.get(FIELD_POWER_HITS + bucket), profile.get(FIELD_POWER_SHOTS + bucket));
+    }
+
+    /**
+     * Returns the rate of hits of an opponent at a distance.
+     * @param opponent The base name of the opponent or 'TOTAL'.
+     * @param distance The distance of the target.
+     * @return the rate within [0, 1], zero if no shot was resolved yet.
+     */
+    public double getDistanceHitRate(final String opponent, final double distance) {
+        final ProfileStore.Profile profile = this.m_statistics.getProfile(opponent);
+        final int bucket = getDistanceBucket(distance);
+        return getRate(profile.get(FIELD_DISTANCE_HITS + bucket), profile.get(FIELD_DISTANCE_SHOTS + bucket));
+    }
+
+    /**
+     * Returns the bucket of a bullet power: Up to 1, up to 2 and above.
+     * @param power The power.
+     * @return the index of the bucket.
+     */
+    public static int getPowerBucket(final double power) {
+        return Math.max(0, Math.min(POWER_BUCKETS - 1, (int) Math.ceil(power) - 1));
+    }
+
+    /**
+     * Returns the bucket of a distance.
+     * @param distance The distance.
+     * @return the index of the bucket.
+     */
+    public static int getDistanceBucket(final double distance) {
+        return Math.max(0, Math.min(DISTANCE_BUCKETS - 1, (int) (distance / DISTANCE_BUCKET_SIZE)));
+    }
+
+    /**
+     * Counts a resolved shot into a profile.
+     */
+    private void count(final ProfileStore.Profile profile, final boolean hit) {
+        final int power = FIELD_POWER_SHOTS + getPowerBucket(this.m_power);
+        final int distance = FIELD_DISTANCE_SHOTS + getDistanceBucket(this.m_distance);
+        profile.set(FIELD_SHOTS, profile.get(FIELD_SHOTS) + 1);
+        profile.set(power, profile.get(power) + 1);
+        profile.set(distance, profile.get(distance) + 1);
+        if (hit) {
+            profile.set(FIELD_HITS, profile.get(FIELD_HITS) + 1);
+            profile.set(power + POWER_BUCKETS, profile.get(power + POWER_BUCKETS) + 1);
+            profile.set(distance + DISTANCE_BUCKETS, profile.get(distance + DISTANCE_BUCKETS) + 1);
+        }
+    }
+
+    private void countReceived(final ProfileStore.Profile profile, final double damage) {
+        profile.set(FIELD_RECEIVED, profile.get(FIELD_RECEIVED) + 1);
+        profile.set(FIELD_DAMAGE, profile.get(FIELD_DAMAGE) + damage);
+    }
+
+    private static double getRate(final double hits, final double shots) {
+        return shots > 0 ? hits / shots : 0;
+    }
+}
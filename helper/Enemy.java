@@ -1,11 +1,9 @@
 package eureka.helper;
 
 import java.awt.geom.Point2D;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Arrays;
 
 import robocode.*;
+import robocode.util.Utils;
 
 import eureka.Eureka;
 
@@ -15,9 +13,21 @@ import eureka.Eureka;
 public class Enemy {
 
   /**
-  * The state of an enemy in a specific point in time.
+   * The number of contacts kept in the history of an enemy.
+   */
+  public final static int HISTORY = 64;
+
+  /**
+   * The number of contacts in a round, after which the danger is taken from them alone instead of the model.
+   */
+  public final static int PRIOR_CONTACTS = 10;
+
+  /**
+  * The state of an enemy in a specific point in time. Instances are views into the history of the enemy and get
+  * overwritten by later contacts or accesses, so they have to be copied if they are to be kept.
   */
   public class Contact extends Point2D.Double {
+    private static final long serialVersionUID = 1L;
     private long m_time;
     private double m_energy;
     private double m_distance;
@@ -26,23 +36,28 @@ public class Enemy {
     private double m_bearing;
 
     /**
-     * Creates a new contact from a 'ScannedRobotEvent'.
-     * @param eureka The robot.
-     * @param enemy The enemy which was found.
+     * Creates a new, empty contact.
      */
-    public Contact(final Eureka eureka, final ScannedRobotEvent enemy) {
-      super(
-          eureka.getX()
-              + Math.sin(Math.toRadians((eureka.getHeading() + enemy.getBearing()) % 360)) * enemy.getDistance(),
-          eureka.getY()
-              + Math.cos(Math.toRadians((eureka.getHeading() + enemy.getBearing()) % 360)) * enemy.getDistance());
-
-      this.m_time = eureka.getTime();
-      this.m_energy = enemy.getEnergy();
-      this.m_velocity = enemy.getVelocity();
-      this.m_heading = enemy.getHeading();
-      this.m_bearing = enemy.getBearing();
-      this.m_distance = this.distance(eureka.getX(), eureka.getY());
+    private Contact() {
+      super();
+    }
+
+    /**
+     * Loads a contact from the history.
+     * @param index The index of the contact in the ring buffer.
+     * @return the contact itself.
+     */
+    private Contact load(final int index) {
+      final Enemy enemy = Enemy.this;
+      this.x = enemy.m_x[index];
+      this.y = enemy.m_y[index];
+      this.m_time = enemy.m_turns[index];
+      this.m_energy = enemy.m_energy[index];
+      this.m_distance = enemy.m_distance[index];
+      this.m_velocity = enemy.m_velocity[index];
+      this.m_heading = enemy.m_heading[index];
+      this.m_bearing = enemy.m_bearing[index];
+      return this;
     }
 
     /**
@@ -95,22 +110,49 @@ public class Enemy {
   }
 
   private String m_name;
-  private ArrayDeque<Contact> m_events;
   private Integer m_dead;
+  private final EnemyModel m_model;
+  private final double m_priorDanger;
+  private long m_interceptTurn;
+  private double m_interceptTime;
+
+  // The history as ring buffer of parallel arrays, 'm_head' is the index of the last contact
+  private final long[] m_turns;
+  private final double[] m_x, m_y, m_energy, m_distance, m_velocity, m_heading, m_bearing;
+  private int m_head, m_size;
+  private final Contact m_last, m_view;
 
   /**
    * Creates a new enemy from a 'ScannedRobotEvent'.
+   * @param eureka The robot.
+   * @param enemy The enemy.
+   * @param model The model of the enemy, which learns from every contact.
    */
-  public Enemy(final Eureka eureka, final ScannedRobotEvent enemy) {
+  public Enemy(final Eureka eureka, final ScannedRobotEvent enemy, final EnemyModel model) {
     this.m_name = enemy.getName();
-    this.m_events = new ArrayDeque<Contact>();
     this.m_dead = null;
+    this.m_model = model;
+    this.m_priorDanger = model.getObservations() > 0 ? model.getDanger() : Double.NaN;
+    this.m_interceptTurn = -1;
+
+    this.m_turns = new long[HISTORY];
+    this.m_x = new double[HISTORY];
+    this.m_y = new double[HISTORY];
+    this.m_energy = new double[HISTORY];
+    this.m_distance = new double[HISTORY];
+    this.m_velocity = new double[HISTORY];
+    this.m_heading = new double[HISTORY];
+    this.m_bearing = new double[HISTORY];
+    this.m_head = -1;
+    this.m_size = 0;
+    this.m_last = new Contact();
+    this.m_view = new Contact();
 
     this.addContact(eureka, enemy);
   }
 
   /**
-   * Adds a contact with an enemy.
+   * Adds a contact with an enemy, replacing the oldest one if the history is full.
    * @param eureka The robot.
    * @param enemy The enemy.
    */
@@ -119,7 +161,20 @@ public class Enemy {
       throw new IllegalArgumentException("Name different");
     }
 
-    this.m_events.push(new Contact(eureka, enemy));
+    final int index = this.m_head = (this.m_head + 1) % HISTORY;
+    final double angle = Math.toRadians((eureka.getHeading() + enemy.getBearing()) % 360);
+    this.m_x[index] = eureka.getX() + Math.sin(angle) * enemy.getDistance();
+    this.m_y[index] = eureka.getY() + Math.cos(angle) * enemy.getDistance();
+    this.m_turns[index] = eureka.getTime();
+    this.m_energy[index] = enemy.getEnergy();
+    this.m_velocity[index] = enemy.getVelocity();
+    this.m_heading[index] = enemy.getHeading();
+    this.m_bearing[index] = enemy.getBearing();
+    this.m_distance[index] = Point2D.distance(this.m_x[index], this.m_y[index], eureka.getX(), eureka.getY());
+    this.m_size = Math.min(this.m_size + 1, HISTORY);
+
+    this.m_last.load(index);
+    this.m_model.observe(this);
   }
 
   /**
@@ -127,14 +182,73 @@ public class Enemy {
    * @return the last contact or 'null'.
    */
   public Contact lastContact() {
-    return this.m_events.peekFirst();
+    return this.m_size > 0 ? this.m_last : null;
+  }
+
+  /**
+   * Returns a previous contact with the enemy. The returned view is reused by the next call.
+   * @param age The number of contacts since the requested one, 0 for the last contact.
+   * @return the contact or 'null', if it is not in the history.
+   */
+  public Contact getContact(final int age) {
+    if (age < 0 || age >= this.m_size) {
+      return null;
+    }
+    return this.m_view.load((this.m_head - age + HISTORY) % HISTORY);
+  }
+
+  /**
+   * Returns the number of contacts in the history.
+   * @return the number of contacts, at most 'HISTORY'.
+   */
+  public int getContactCount() {
+    return this.m_size;
+  }
+
+  /**
+   * Stores the last solution of an intercept, which is used as start of the next one.
+   * @param turn The turn of the solution.
+   * @param time The flight time of the bullet in ticks.
+   */
+  public void setIntercept(final long turn, final double time) {
+    this.m_interceptTurn = turn;
+    this.m_interceptTime = time;
+  }
+
+  /**
+   * Returns the turn of the last solution of an intercept.
+   * @return the turn or -1, if there is none.
+   */
+  public long getInterceptTurn() {
+    return this.m_interceptTurn;
   }
 
   /**
-   * Returns the danger of the enemy.
+   * Returns the flight time of the last solution of an intercept.
+   * @return the flight time in ticks.
+   */
+  public double getInterceptTime() {
+    return this.m_interceptTime;
+  }
+
+  /**
+   * Returns the danger of the enemy. Within the first contacts of a round, it is blended with the danger the model
+   * learned in the former rounds.
    * @return the danger of the enemy between 0 and 1.
    */
   public double getDanger() {
+    final double current = this.getCurrentDanger();
+    if (Double.isNaN(this.m_priorDanger) || this.m_size >= PRIOR_CONTACTS) {
+      return current;
+    }
+    return this.m_priorDanger + (current - this.m_priorDanger) * this.m_size / PRIOR_CONTACTS;
+  }
+
+  /**
+   * Returns the danger of the enemy on base of its last contact only.
+   * @return the danger of the enemy between 0 and 1.
+   */
+  public double getCurrentDanger() {
     return this.lastContact().getEnergy() / 50;
   }
 
@@ -175,25 +289,45 @@ public class Enemy {
    * @return the name of the enemy.
    */
   public String getBaseName() {
-    final int index = this.m_name.lastIndexOf('(');
-    return index > 0 ? this.m_name.substring(0, index - 1).trim() : this.m_name;
+    return Enemy.getBaseName(this.m_name);
+  }
+
+  /**
+   * Return the base name of a robot, i.e. without the index which is added if there are multiple of them.
+   * @param name The name of the robot.
+   * @return the base name.
+   */
+  public static String getBaseName(final String name) {
+    final int index = name.lastIndexOf('(');
+    return index > 0 ? name.substring(0, index - 1).trim() : name;
+  }
+
+  /**
+   * Returns the model of the enemy, which is shared between all rounds and robots with the same base name.
+   * @return the model.
+   */
+  public EnemyModel getModel() {
+    return this.m_model;
   }
 
   /**
-   * Predicts the position of an enemy in a specific turn.
-   * @param The turn in future, for which the position may be predicted.
+   * Predicts the position of an enemy in a specific turn. The cache of the eye should be preferred for the current
+   * enemies, as it is computed once per turn.
+   * @param The turn in future, for which the position may be predicted, might be between two ticks.
    * @return the predicted position.
    */
-  public Point2D.Double predictPosition(final long turn) {
-    if (this.m_events.size() < 2) {
-      return this.lastContact();
+  public Point2D.Double predictPosition(final double turn) {
+    if (this.m_size < 2) {
+      return new Point2D.Double(this.m_last.getX(), this.m_last.getY());
     }
 
     // This algorithm is highly inspired by IBM (https://www.ibm.com/developerworks/library/j-circular/) 
-    final Contact last = this.lastContact(), secondLast = (Contact) (this.m_events.toArray()[1]);
-    final double headingChanged = last.getHeading() - secondLast.getHeading();
+    final Contact last = this.lastContact(), secondLast = this.getContact(1);
+    final double heading = Math.toRadians(last.getHeading());
+    final double headingChanged = Utils.normalRelativeAngle(heading - Math.toRadians(secondLast.getHeading()))
+        / Math.max(1, last.getTurn() - secondLast.getTurn());
     final double diff = turn - last.getTurn();
-    final double speed = last.distanceSq(secondLast) / (last.getTurn() - secondLast.getTurn());
+    final double speed = last.getVelocity();
 
     double newX, newY;
 
@@ -201,12 +335,12 @@ public class Enemy {
       // Choose circular targetting...
       double radius = speed / headingChanged;
       double tothead = diff * headingChanged;
-      newY = last.getY() + (Math.sin(last.getHeading() + tothead) * radius) - (Math.sin(last.getHeading()) * radius);
-      newX = last.getX() + (Math.cos(last.getHeading()) * radius) - (Math.cos(last.getHeading() + tothead) * radius);
+      newY = last.getY() + (Math.sin(heading + tothead) * radius) - (Math.sin(heading) * radius);
+      newX = last.getX() + (Math.cos(heading) * radius) - (Math.cos(heading + tothead) * radius);
     } else {
       // ... or the linear one.
-      newY = last.getY() + Math.cos(last.getHeading()) * speed * diff;
-      newX = last.getX() + Math.sin(last.getHeading()) * speed * diff;
+      newY = last.getY() + Math.cos(heading) * speed * diff;
+      newX = last.getX() + Math.sin(heading) * speed * diff;
     }
 
     return new Point2D.Double(newX, newY);
@@ -0,0 +1,311 @@
+package eureka.helper;
+
+import java.util.HashMap;
+
+import robocode.Rules;
+import robocode.util.Utils;
+
+/**
+ * The model of an enemy, learned from all the contacts with robots of the same base name in the current battle.
+ * It survives the end of a round, such that the next round starts with the knowledge about the enemy. Only the logs of
+ * the movement are kept per robot, as the patterns of clones sharing the base name must not be mixed.
+ */
+public class EnemyModel {
+
+    /**
+     * The weight of a new contact in the exponential average of the danger.
+     */
+    public final static double DANGER_WEIGHT = 0.05;
+
+    /**
+     * The highest possible fire rate, limited by the minimal gun heat and its default cooling rate.
+     */
+    public final static double MAX_FIRE_RATE = 0.1 / Rules.getGunHeat(Rules.MIN_BULLET_POWER);
+
+    /**
+     * The number of bins of the histograms of the absolute velocity and the absolute turn rate.
+     */
+    public final static int VELOCITY_BINS = 4, TURN_RATE_BINS = 4;
+
+    /**
+     * The number of features describing the behaviour of an enemy: Both histograms, the distance, the reversal rate and
+     * the fire rate.
+     */
+    public final static int FEATURES = VELOCITY_BINS + TURN_RATE_BINS + 3;
+
+    /**
+     * The maximal number of guns scored against the enemy.
+     */
+    public final static int MAX_GUNS = 8;
+
+    /**
+     * The minimal weight of a new result in the average hit rate of a gun, such that the scores keep adapting.
+     */
+    public final static double GUN_WEIGHT = 0.02;
+
+    private final String m_name;
+    private final double[] m_gunScores;
+    private final long[] m_gunShots;
+    private KdTree m_situations;
+    private HashMap<String, PatternIndex> m_patterns;
+    private final long[] m_velocities, m_turnRates;
+    private long m_ticks, m_shots;
+    private long m_observations;
+    private double m_velocityMean, m_velocityM2;
+    private double m_turnRateMean, m_turnRateM2;
+    private double m_distanceMean;
+    private long m_reversals;
+    private double m_danger;
+
+    /**
+     * Creates an empty model.
+     * @param name The base name of the enemy.
+     */
+    public EnemyModel(final String name) {
+        this.m_name = name;
+        this.m_velocities = new long[VELOCITY_BINS];
+        this.m_turnRates = new long[TURN_RATE_BINS];
+        this.m_gunScores = new double[MAX_GUNS];
+        this.m_gunShots = new long[MAX_GUNS];
+        this.m_ticks = 0;
+        this.m_shots = 0;
+        this.m_observations = 0;
+        this.m_reversals = 0;
+        this.m_danger = 0;
+    }
+
+    /**
+     * Learns from the last contact with an enemy.
+     * @param enemy The enemy, which was just seen.
+     */
+    public void observe(final Enemy enemy) {
+        final Enemy.Contact last = enemy.lastContact();
+        final double velocity = last.getVelocity(), heading = last.getHeading(), distance = last.getDistance();
+        this.m_danger = this.m_observations == 0 ? enemy.getCurrentDanger()
+                : this.m_danger + DANGER_WEIGHT * (enemy.getCurrentDanger() - this.m_danger);
+
+        // The turn rate needs the previous contact, the model does not learn from a single one
+        final Enemy.Contact previous = enemy.getContact(1);
+        if (previous == null || previous.getTurn() >= last.getTurn()) {
+            return;
+        }
+        final double turnRate = Utils.normalRelativeAngleDegrees(heading - previous.getHeading())
+                / (last.getTurn() - previous.getTurn());
+        if (velocity * previous.getVelocity() < 0) {
+            this.m_reversals++;
+        }
+
+        // A drop of energy within the range of bullet powers is most likely a shot
+        final double drop = previous.getEnergy() - last.getEnergy();
+        if (drop >= Rules.MIN_BULLET_POWER && drop <= Rules.MAX_BULLET_POWER) {
+            this.m_shots++;
+        }
+        this.m_ticks += last.getTurn() - previous.getTurn();
+        this.m_velocities[EnemyModel.bin(Math.abs(velocity) / Rules.MAX_VELOCITY, VELOCITY_BINS)]++;
+        this.m_turnRates[EnemyModel.bin(Math.abs(turnRate) / Rules.MAX_TURN_RATE, TURN_RATE_BINS)]++;
+
+        // Update the mean and the variance incrementally (Welford)
+        final long n = ++this.m_observations;
+        final double velocityDelta = velocity - this.m_velocityMean;
+        this.m_velocityMean += velocityDelta / n;
+        this.m_velocityM2 += velocityDelta * (velocity - this.m_velocityMean);
+        final double turnRateDelta = turnRate - this.m_turnRateMean;
+        this.m_turnRateMean += turnRateDelta / n;
+        this.m_turnRateM2 += turnRateDelta * (turnRate - this.m_turnRateMean);
+        this.m_distanceMean += (distance - this.m_distanceMean) / n;
+    }
+
+    /**
+     * Returns the features describing the behaviour of the enemy, each one normalized between 0 and 1.
+     * @param features The destination with a length of at least 'FEATURES'.
+     * @return the destination.
+     */
+    public double[] getFeatures(final double[] features) {
+        final double observations = Math.max(1, this.m_observations);
+        for (int i = 0; i < VELOCITY_BINS; i++) {
+            features[i] = this.m_velocities[i] / observations;
+        }
+        for (int i = 0; i < TURN_RATE_BINS; i++) {
+            features[VELOCITY_BINS + i] = this.m_turnRates[i] / observations;
+        }
+        features[VELOCITY_BINS + TURN_RATE_BINS] = Math.min(1, this.m_distanceMean / 1000);
+        features[VELOCITY_BINS + TURN_RATE_BINS + 1] = this.getReversalRate();
+        features[VELOCITY_BINS + TURN_RATE_BINS + 2] = Math.min(1, this.getFireRate() / MAX_FIRE_RATE);
+        return features;
+    }
+
+    /**
+     * Returns the estimated number of bullets the enemy fires per turn.
+     * @return the fire rate.
+     */
+    public double getFireRate() {
+        return this.m_ticks > 0 ? (double) this.m_shots / this.m_ticks : 0;
+    }
+
+    /**
+     * Returns the base name of the enemy.
+     * @return the name.
+     */
+    public String getName() {
+        return this.m_name;
+    }
+
+    /**
+     * Returns the number of observations the model learned from.
+     * @return the number of observations.
+     */
+    public long getObservations() {
+        return this.m_observations;
+    }
+
+    /**
+     * Returns the average velocity of the enemy.
+     * @return the velocity, negative if it drives backwards most of the time.
+     */
+    public double getVelocityMean() {
+        return this.m_velocityMean;
+    }
+
+    /**
+     * Returns the standard deviation of the velocity of the enemy.
+     * @return the standard deviation.
+     */
+    public double getVelocityDeviation() {
+        return this.m_observations > 1 ? Math.sqrt(this.m_velocityM2 / (this.m_observations - 1)) : 0;
+    }
+
+    /**
+     * Returns the average change of the heading per turn.
+     * @return the turn rate in degrees.
+     */
+    public double getTurnRateMean() {
+        return this.m_turnRateMean;
+    }
+
+    /**
+     * Returns the standard deviation of the change of the heading per turn.
+     * @return the standard deviation in degrees.
+     */
+    public double getTurnRateDeviation() {
+        return this.m_observations > 1 ? Math.sqrt(this.m_turnRateM2 / (this.m_observations - 1)) : 0;
+    }
+
+    /**
+     * Returns the average distance the enemy keeps towards Eureka.
+     * @return the distance.
+     */
+    public double getDistanceMean() {
+        return this.m_distanceMean;
+    }
+
+    /**
+     * Returns how often the enemy reverses its direction.
+     * @return the ratio of reversals to observations between 0 and 1.
+     */
+    public double getReversalRate() {
+        return this.m_observations > 0 ? (double) this.m_reversals / this.m_observations : 0;
+    }
+
+    /**
+     * Returns the average danger of the enemy, which is the prior of its danger at the start of the next round.
+     * @return the danger between 0 and 1.
+     */
+    public double getDanger() {
+        return this.m_danger;
+    }
+
+    /**
+     * Seeds the danger from similar enemies, as if its average had started from their danger instead of the first
+     * contact.
+     * @param danger The danger of the similar enemies between 0 and 1.
+     */
+    public void seedDanger(final double danger) {
+        this.m_danger += (danger - this.m_danger) * Math.pow(1 - DANGER_WEIGHT, this.m_observations);
+    }
+
+    /**
+     * Scores a virtual bullet fired at the enemy.
+     * @param gun The index of the gun.
+     * @param hit Whether the bullet hit the enemy.
+     */
+    public void scoreGun(final int gun, final boolean hit) {
+        final double weight = Math.max(GUN_WEIGHT, 1.0 / ++this.m_gunShots[gun]);
+        this.m_gunScores[gun] += ((hit ? 1 : 0) - this.m_gunScores[gun]) * weight;
+    }
+
+    /**
+     * Returns the average hit rate of a gun against the enemy.
+     * @param gun The index of the gun.
+     * @return the hit rate between 0 and 1.
+     */
+    public double getGunScore(final int gun) {
+        return this.m_gunScores[gun];
+    }
+
+    /**
+     * Returns the situations the enemy was reached in by waves, with the guess factor it was reached at.
+     * @return the tree of situations, created on first access.
+     */
+    public KdTree getSituations() {
+        if (this.m_situations == null) {
+            this.m_situations = new KdTree(GuessFactorGun.FEATURES, GuessFactorGun.CAPACITY, GuessFactorGun.NEIGHBOURS);
+        }
+        return this.m_situations;
+    }
+
+    /**
+     * Returns the log of the movement of a robot with the base name of the model, indexed for its patterns.
+     * @param name The full name of the robot.
+     * @return the index, created on first access.
+     */
+    public PatternIndex getPatterns(final String name) {
+        if (this.m_patterns == null) {
+            this.m_patterns = new HashMap<String, PatternIndex>();
+        }
+        PatternIndex patterns = this.m_patterns.get(name);
+        if (patterns == null) {
+            patterns = new PatternIndex(PatternMatchingGun.CAPACITY);
+            this.m_patterns.put(name, patterns);
+        }
+        return patterns;
+    }
+
+    /**
+     * Returns the memory used by the situations and the logs of the movement, which are the bulk of the model.
+     * @return the estimated number of bytes.
+     */
+    public long getFootprint() {
+        long footprint = this.m_situations != null ? this.m_situations.getFootprint() : 0;
+        if (this.m_patterns != null) {
+            for (PatternIndex patterns : this.m_patterns.values()) {
+                footprint += patterns.getFootprint();
+            }
+        }
+        return footprint;
+    }
+
+    /**
+     * Returns the gun with the highest hit rate against the enemy.
+     * @param guns The number of guns, of which the first one is chosen if there is no difference.
+     * @return the index of the gun.
+     */
+    public int getBestGun(final int guns) {
+        int best = 0;
+        for (int g = 1; g < guns; g++) {
+            if (this.m_gunScores[g] > this.m_gunScores[best]) {
+                best = g;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the bin of a normalized value.
+     * @param value The value between 0 and 1, others are clamped.
+     * @param bins The number of bins.
+     * @return the bin.
+     */
+    private static int bin(final double value, final int bins) {
+        return Math.min(bins - 1, Math.max(0, (int) (value * bins)));
+    }
+}
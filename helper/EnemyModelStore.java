@@ -0,0 +1,105 @@
+package eureka.helper;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The models of the enemies in a battle, keyed by their base name. The number of models and their estimated memory are
+ * limited, if either is exceeded the least recently used ones are dropped.
+ */
+public class EnemyModelStore {
+
+    /**
+     * The default number of models kept.
+     */
+    public final static int DEFAULT_CAPACITY = 32;
+
+    /**
+     * The default memory of the models in bytes. A model is small until its guns allocate the situations (about 240KB)
+     * and a log of the movement for each robot with its base name (about 170KB each), so this fits about ten of them.
+     */
+    public final static long DEFAULT_BYTES = 4L * 1024 * 1024;
+
+    private final LinkedHashMap<String, EnemyModel> m_models;
+    private final long m_bytes;
+
+    /**
+     * Creates an empty store.
+     * @param capacity The maximal number of models.
+     * @param bytes The maximal estimated memory of the models, though the most recently used one is always kept.
+     */
+    public EnemyModelStore(final int capacity, final long bytes) {
+        if (capacity < 1 || bytes < 1) {
+            throw new IllegalArgumentException("Capacity too small");
+        }
+        this.m_bytes = bytes;
+
+        // Keep the entries in access order, such that the eldest one is the least recently used
+        this.m_models = new LinkedHashMap<String, EnemyModel>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, EnemyModel> eldest) {
+                return this.size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the model of an enemy, which is created if not existing.
+     * @param name The base name of the enemy.
+     * @return the model.
+     */
+    public EnemyModel getModel(final String name) {
+        EnemyModel model = this.m_models.get(name);
+        if (model == null) {
+            model = new EnemyModel(name);
+            this.m_models.put(name, model);
+        }
+        this.shrink();
+        return model;
+    }
+
+    /**
+     * Returns all models, without changing the order of their use.
+     * @return the models.
+     */
+    public Collection<EnemyModel> getModels() {
+        return this.m_models.values();
+    }
+
+    /**
+     * Checks if the model of an enemy is known.
+     * @param name The base name of the enemy.
+     * @return true if the model exists.
+     */
+    public boolean contains(final String name) {
+        return this.m_models.containsKey(name);
+    }
+
+    /**
+     * Returns the number of models.
+     * @return the number of models.
+     */
+    public int size() {
+        return this.m_models.size();
+    }
+
+    /**
+     * Drops the least recently used models, until their memory is within the limit.
+     */
+    private void shrink() {
+        long footprint = 0;
+        for (EnemyModel model : this.m_models.values()) {
+            footprint += model.getFootprint();
+        }
+
+        final Iterator<EnemyModel> models = this.m_models.values().iterator();
+        while (footprint > this.m_bytes && this.m_models.size() > 1) {
+            footprint -= models.next().getFootprint();
+            models.remove();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package eureka.helper;
+
+import java.util.Arrays;
+
+/**
+ * The current enemies at a specific turn, stored in primitive arrays and indexed by a uniform grid over the
+ * battlefield. A snapshot is immutable: It is composed by a builder, which the eye uses once per turn, and may be held
+ * by the other parts of the robot without seeing it change.
+ */
+public class EnemySnapshot {
+
+    /**
+     * The edge length of a cell of the grid.
+     */
+    public final static double CELL_SIZE = 100;
+
+    /**
+     * Composes snapshots, reusing its buffers for each of them.
+     */
+    public static class Builder {
+        private final double m_width, m_height;
+        private Enemy[] m_enemies;
+        private double[] m_performance;
+        private int m_size;
+        private long m_turn;
+
+        /**
+         * Creates a builder.
+         * @param width The width of the battlefield.
+         * @param height The height of the battlefield.
+         */
+        public Builder(final double width, final double height) {
+            this.m_width = width;
+            this.m_height = height;
+            this.m_enemies = new Enemy[8];
+            this.m_performance = new double[8];
+        }
+
+        /**
+         * Starts a new snapshot, dropping all enemies.
+         * @param turn The turn of the snapshot.
+         * @return the builder.
+         */
+        public Builder clear(final long turn) {
+            Arrays.fill(this.m_enemies, 0, this.m_size, null);
+            this.m_size = 0;
+            this.m_turn = turn;
+            return this;
+        }
+
+        /**
+         * Adds an enemy at the position of its last contact.
+         * @param enemy The enemy.
+         * @param performance The performance of the enemy in former battles.
+         * @return the builder.
+         */
+        public Builder add(final Enemy enemy, final double performance) {
+            if (this.m_size == this.m_enemies.length) {
+                this.m_enemies = Arrays.copyOf(this.m_enemies, this.m_size * 2);
+                this.m_performance = Arrays.copyOf(this.m_performance, this.m_size * 2);
+            }
+            this.m_enemies[this.m_size] = enemy;
+            this.m_performance[this.m_size] = performance;
+            this.m_size++;
+            return this;
+        }
+
+        /**
+         * Creates the snapshot of the enemies added and builds its grid.
+         * @return the snapshot.
+         */
+        public EnemySnapshot build() {
+            return new EnemySnapshot(this);
+        }
+    }
+
+    private final int m_columns, m_rows;
+    private final int[] m_cellStart, m_cellItems;
+    private final Enemy[] m_enemies;
+    private final double[] m_x, m_y, m_danger, m_performance;
+    private final int m_size;
+    private final long m_turn;
+
+    /**
+     * Creates a snapshot of the enemies of a builder.
+     * @param builder The builder.
+     */
+    private EnemySnapshot(final Builder builder) {
+        this.m_columns = Math.max(1, (int) Math.ceil(builder.m_width / CELL_SIZE));
+        this.m_rows = Math.max(1, (int) Math.ceil(builder.m_height / CELL_SIZE));
+        this.m_size = builder.m_size;
+        this.m_turn = builder.m_turn;
+        this.m_enemies = Arrays.copyOf(builder.m_enemies, this.m_size);
+        this.m_performance = Arrays.copyOf(builder.m_performance, this.m_size);
+        this.m_x = new double[this.m_size];
+        this.m_y = new double[this.m_size];
+        this.m_danger = new double[this.m_size];
+        for (int i = 0; i < this.m_size; i++) {
+            final Enemy.Contact contact = this.m_enemies[i].lastContact();
+            this.m_x[i] = contact.getX();
+            this.m_y[i] = contact.getY();
+            this.m_danger[i] = this.m_enemies[i].getDanger();
+        }
+
+        // Count the enemies in each cell and calculate where the cells start ...
+        final int[] cells = new int[this.m_size];
+        this.m_cellStart = new int[this.m_columns * this.m_rows + 1];
+        this.m_cellItems = new int[this.m_size];
+        for (int i = 0; i < this.m_size; i++) {
+            cells[i] = this.cellOf(this.m_x[i], this.m_y[i]);
+            this.m_cellStart[cells[i] + 1]++;
+        }
+        for (int c = 1; c < this.m_cellStart.length; c++) {
+            this.m_cellStart[c] += this.m_cellStart[c - 1];
+        }
+
+        // ... sort them into their cells, which moves each start to the end of its cell, ...
+        for (int i = 0; i < this.m_size; i++) {
+            this.m_cellItems[this.m_cellStart[cells[i]]++] = i;
+        }
+
+        // ... and restore the starts.
+        for (int c = this.m_cellStart.length - 1; c > 0; c--) {
+            this.m_cellStart[c] = this.m_cellStart[c - 1];
+        }
+        this.m_cellStart[0] = 0;
+    }
+
+    /**
+     * Returns the turn of the snapshot.
+     * @return the turn.
+     */
+    public long getTurn() {
+        return this.m_turn;
+    }
+
+    /**
+     * Returns the number of enemies.
+     * @return the number of enemies.
+     */
+    public int size() {
+        return this.m_size;
+    }
+
+    /**
+     * Returns an enemy.
+     * @param i The index of the enemy in the snapshot.
+     * @return the enemy.
+     */
+    public Enemy getEnemy(final int i) {
+        return this.m_enemies[i];
+    }
+
+    /**
+     * Returns the x coordinate of an enemy.
+     * @param i The index of the enemy in the snapshot.
+     * @return the x coordinate.
+     */
+    public double getX(final int i) {
+        return this.m_x[i];
+    }
+
+    /**
+     * Returns the y coordinate of an enemy.
+     * @param i The index of the enemy in the snapshot.
+     * @return the y coordinate.
+     */
+    public double getY(final int i) {
+        return this.m_y[i];
+    }
+
+    /**
+     * Returns the danger of an enemy.
+     * @param i The index of the enemy in the snapshot.
+     * @return the danger between 0 and 1.
+     */
+    public double getDanger(final int i) {
+        return this.m_danger[i];
+    }
+
+    /**
+     * Returns the performance of an enemy in former battles.
+     * @param i The index of the enemy in the snapshot.
+     * @return the normalized performance between 0 and 1.
+     */
+    public double getPerformance(final int i) {
+        return this.m_performance[i];
+    }
+
+    /**
+     * Finds the enemy nearest to a position.
+     * @param x The x coordinate of the position.
+     * @param y The y coordinate of the position.
+     * @return the index of the enemy or -1, if there is none.
+     */
+    public int findNearest(final double x, final double y) {
+        final int column = this.columnOf(x), row = this.rowOf(y);
+        final int rings = Math.max(this.m_columns, this.m_rows);
+        int nearest = -1;
+        double nearestDistanceSq = Double.POSITIVE_INFINITY;
+
+        // Search the rings of cells around, until no nearer enemy is possible in the next one
+        for (int r = 0; r <= rings; r++) {
+            final double reachable = (r - 1) * CELL_SIZE;
+            if (nearest >= 0 && nearestDistanceSq <= reachable * reachable) {
+                break;
+            }
+            for (int c = column - r; c <= column + r; c++) {
+                if (c < 0 || c >= this.m_columns) {
+                    continue;
+                }
+                final boolean edge = c == column - r || c == column + r;
+                for (int w = row - r; w <= row + r; w += edge ? 1 : Math.max(1, 2 * r)) {
+                    if (w < 0 || w >= this.m_rows) {
+                        continue;
+                    }
+                    final int cell = w * this.m_columns + c;
+                    for (int k = this.m_cellStart[cell]; k < this.m_cellStart[cell + 1]; k++) {
+                        final int i = this.m_cellItems[k];
+                        final double distanceSq = (this.m_x[i] - x) * (this.m_x[i] - x)
+                                + (this.m_y[i] - y) * (this.m_y[i] - y);
+                        if (distanceSq < nearestDistanceSq) {
+                            nearest = i;
+                            nearestDistanceSq = distanceSq;
+                        }
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Returns the cell of a position, positions outside the battlefield belong to the nearest cell.
+     */
+    private int cellOf(final double x, final double y) {
+        return this.rowOf(y) * this.m_columns + this.columnOf(x);
+    }
+
+    private int columnOf(final double x) {
+        return Math.min(this.m_columns - 1, Math.max(0, (int) Math.floor(x / CELL_SIZE)));
+    }
+
+    private int rowOf(final double y) {
+        return Math.min(this.m_rows - 1, Math.max(0, (int) Math.floor(y / CELL_SIZE)));
+    }
+}
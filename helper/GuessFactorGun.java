@@ -0,0 +1,207 @@
+package eureka.helper;
+
+import robocode.Rules;
+import robocode.util.Utils;
+
+import eureka.Eureka;
+
+/**
+ * A gun learning how an enemy dodges: For each wave fired, the situation of the enemy is logged together with the
+ * guess factor at which the wave reached it, i.e. the angle it moved relative to the maximal escape angle. Aiming
+ * searches the most similar past situations in a KD-tree and fires at their most likely guess factor.
+ */
+public class GuessFactorGun implements Gun {
+
+    /**
+     * The features of a situation: Distance, lateral velocity, acceleration, wall proximity and the time since the
+     * last change of direction, each one normalized between 0 and 1.
+     */
+    public final static int FEATURES = 5;
+
+    /**
+     * The maximal number of situations kept for each enemy.
+     */
+    public final static int CAPACITY = 2000;
+
+    /**
+     * The number of similar situations considered on aiming.
+     */
+    public final static int NEIGHBOURS = 16;
+
+    /**
+     * The maximal number of waves in flight, further ones are not logged.
+     */
+    public final static int WAVES = 128;
+
+    /**
+     * The width of the kernel smoothing the guess factors.
+     */
+    public final static double BANDWIDTH = 0.1;
+
+    private final double[] m_x, m_y, m_bearing, m_speed, m_direction, m_features;
+    private final long[] m_turn;
+    private final Enemy[] m_targets;
+    private final double[] m_situation;
+    private int m_size;
+
+    /**
+     * Creates the gun without waves.
+     */
+    public GuessFactorGun() {
+        this.m_x = new double[WAVES];
+        this.m_y = new double[WAVES];
+        this.m_bearing = new double[WAVES];
+        this.m_speed = new double[WAVES];
+        this.m_direction = new double[WAVES];
+        this.m_features = new double[WAVES * FEATURES];
+        this.m_turn = new long[WAVES];
+        this.m_targets = new Enemy[WAVES];
+        this.m_situation = new double[FEATURES];
+        this.m_size = 0;
+    }
+
+    public double aim(final Eureka eureka, final Enemy target, final double bulletSpeed) {
+        final double direction = this.situate(eureka, target, this.m_situation);
+        final double bearing = Math.atan2(target.lastContact().getX() - eureka.getX(),
+                target.lastContact().getY() - eureka.getY());
+        final KdTree situations = target.getModel().getSituations();
+        final int found = situations.search(this.m_situation, NEIGHBOURS);
+        if (found == 0) {
+            return bearing;
+        }
+
+        // Choose the guess factor with the highest density among the neighbours, weighted by their similarity
+        double best = 0, bestDensity = -1;
+        for (int i = 0; i < found; i++) {
+            double density = 0;
+            for (int j = 0; j < found; j++) {
+                final double difference = (situations.getValue(i) - situations.getValue(j)) / BANDWIDTH;
+                density += Math.exp(-0.5 * difference * difference) / (1 + situations.getDistance(j));
+            }
+            if (density > bestDensity) {
+                best = situations.getValue(i);
+                bestDensity = density;
+            }
+        }
+        return bearing + direction * best * GuessFactorGun.getMaxEscapeAngle(bulletSpeed);
+    }
+
+    @Override
+    public void fire(final Eureka eureka, final Enemy target, final double bulletSpeed) {
+        if (this.m_size == WAVES) {
+            return;
+        }
+
+        final int i = this.m_size++;
+        this.m_x[i] = eureka.getX();
+        this.m_y[i] = eureka.getY();
+        this.m_bearing[i] = Math.atan2(target.lastContact().getX() - eureka.getX(),
+                target.lastContact().getY() - eureka.getY());
+        this.m_speed[i] = bulletSpeed;
+        this.m_direction[i] = this.situate(eureka, target, this.m_situation);
+        System.arraycopy(this.m_situation, 0, this.m_features, i * FEATURES, FEATURES);
+        this.m_turn[i] = eureka.getTime();
+        this.m_targets[i] = target;
+    }
+
+    @Override
+    public void update(final Enemy target) {
+        final Enemy.Contact contact = target.lastContact();
+        for (int i = this.m_size - 1; i >= 0; i--) {
+            if (this.m_targets[i] != target) {
+                continue;
+            }
+
+            // Log the situation, once the wave reached the enemy
+            final double distance = contact.distance(this.m_x[i], this.m_y[i]);
+            if (this.m_speed[i] * (contact.getTurn() - this.m_turn[i]) >= distance) {
+                final double bearing = Math.atan2(contact.getX() - this.m_x[i], contact.getY() - this.m_y[i]);
+                final double guessFactor = Utils.normalRelativeAngle(bearing - this.m_bearing[i])
+                        / GuessFactorGun.getMaxEscapeAngle(this.m_speed[i]) * this.m_direction[i];
+                System.arraycopy(this.m_features, i * FEATURES, this.m_situation, 0, FEATURES);
+                target.getModel().getSituations().add(this.m_situation, Math.max(-1, Math.min(1, guessFactor)));
+                this.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Drops the waves, which left the range or whose target died, as they are never resolved.
+     */
+    @Override
+    public void expire(final long turn, final double range) {
+        for (int i = this.m_size - 1; i >= 0; i--) {
+            if (!this.m_targets[i].isAlive() || this.m_speed[i] * (turn - this.m_turn[i]) > range
+                    || turn < this.m_turn[i]) {
+                this.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Calculates the features of the current situation of an enemy.
+     * @param eureka The robot.
+     * @param target The enemy.
+     * @param features The destination of the features.
+     * @return the direction the enemy moves relative to Eureka, 1 for clockwise or -1.
+     */
+    private double situate(final Eureka eureka, final Enemy target, final double[] features) {
+        final Enemy.Contact last = target.lastContact();
+        final double x = last.getX(), y = last.getY(), velocity = last.getVelocity();
+        final long turn = last.getTurn();
+        final double bearing = Math.atan2(x - eureka.getX(), y - eureka.getY());
+        final double lateralVelocity = velocity * Math.sin(Math.toRadians(last.getHeading()) - bearing);
+
+        // Acceleration, based on the previous contact
+        final Enemy.Contact previous = target.getContact(1);
+        final double acceleration = previous != null && previous.getTurn() < turn
+                ? (Math.abs(velocity) - Math.abs(previous.getVelocity())) / (turn - previous.getTurn())
+                : 0;
+
+        // Time since the last change of the direction, limited by the history
+        long unchanged = 0;
+        for (int k = 1; k < target.getContactCount(); k++) {
+            final Enemy.Contact contact = target.getContact(k);
+            unchanged = turn - contact.getTurn();
+            if (contact.getVelocity() * velocity < 0) {
+                break;
+            }
+        }
+
+        final double walls = Math.min(Math.min(x, eureka.getBattleFieldWidth() - x),
+                Math.min(y, eureka.getBattleFieldHeight() - y));
+        features[0] = Math.min(1, Math.hypot(x - eureka.getX(), y - eureka.getY()) / 1000);
+        features[1] = Math.abs(lateralVelocity) / Rules.MAX_VELOCITY;
+        features[2] = Math.max(0, Math.min(1, (acceleration + Rules.DECELERATION)
+                / (Rules.DECELERATION + Rules.ACCELERATION)));
+        features[3] = Math.max(0, Math.min(1, walls / 400));
+        features[4] = Math.min(1, unchanged / 100.0);
+        return lateralVelocity >= 0 ? 1 : -1;
+    }
+
+    /**
+     * Returns the maximal angle an enemy might move until a bullet reaches it.
+     * @param bulletSpeed The speed of the bullet.
+     * @return the angle in radians.
+     */
+    public static double getMaxEscapeAngle(final double bulletSpeed) {
+        return Math.asin(Rules.MAX_VELOCITY / bulletSpeed);
+    }
+
+    /**
+     * Removes a wave by replacing it with the last one.
+     * @param i The index of the wave.
+     */
+    private void remove(final int i) {
+        final int last = --this.m_size;
+        this.m_x[i] = this.m_x[last];
+        this.m_y[i] = this.m_y[last];
+        this.m_bearing[i] = this.m_bearing[last];
+        this.m_speed[i] = this.m_speed[last];
+        this.m_direction[i] = this.m_direction[last];
+        System.arraycopy(this.m_features, last * FEATURES, this.m_features, i * FEATURES, FEATURES);
+        this.m_turn[i] = this.m_turn[last];
+        this.m_targets[i] = this.m_targets[last];
+        this.m_targets[last] = null;
+    }
+}
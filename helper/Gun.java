@@ -0,0 +1,84 @@
+package eureka.helper;
+
+import eureka.Eureka;
+
+/**
+ * A strategy of aiming at an enemy.
+ */
+public interface Gun {
+
+    /**
+     * Aims directly at the last position of the enemy.
+     */
+    public static class HeadOn implements Gun {
+        public double aim(final Eureka eureka, final Enemy target, final double bulletSpeed) {
+            return Math.atan2(target.lastContact().getX() - eureka.getX(), target.lastContact().getY() - eureka.getY());
+        }
+    }
+
+    /**
+     * Aims at the position the enemy reaches, if it keeps its velocity and heading.
+     * Adopted from http://robowiki.net/wiki/Linear_Targeting.
+     */
+    public static class Linear implements Gun {
+        public double aim(final Eureka eureka, final Enemy target, final double bulletSpeed) {
+            final double headOnBearing = Math.atan2(target.lastContact().getX() - eureka.getX(),
+                    target.lastContact().getY() - eureka.getY());
+            return headOnBearing + Math.asin(target.lastContact().getVelocity() / bulletSpeed
+                    * Math.sin(Math.toRadians(target.lastContact().getHeading()) - headOnBearing));
+        }
+    }
+
+    /**
+     * Aims at the position the enemy reaches, if it keeps on its circle, as predicted by the enemy.
+     */
+    public static class Circular implements Gun {
+        private final InterceptSolver m_solver;
+
+        /**
+         * Creates the gun.
+         * @param solver The solver of the intercept on the predicted path.
+         */
+        public Circular(final InterceptSolver solver) {
+            this.m_solver = solver;
+        }
+
+        public double aim(final Eureka eureka, final Enemy target, final double bulletSpeed) {
+            this.m_solver.solve(eureka, target, bulletSpeed);
+            return Math.atan2(this.m_solver.getX() - eureka.getX(), this.m_solver.getY() - eureka.getY());
+        }
+    }
+
+    /**
+     * Calculates the direction to fire into.
+     * @param eureka The robot.
+     * @param target The enemy.
+     * @param bulletSpeed The speed of the bullet.
+     * @return the absolute direction in radians.
+     */
+    double aim(Eureka eureka, Enemy target, double bulletSpeed);
+
+    /**
+     * Notifies the gun about a wave fired at an enemy, i.e. a volley of virtual bullets.
+     * @param eureka The robot.
+     * @param target The enemy.
+     * @param bulletSpeed The speed of the bullets.
+     */
+    default void fire(Eureka eureka, Enemy target, double bulletSpeed) {
+    }
+
+    /**
+     * Notifies the gun about a new contact with an enemy.
+     * @param target The enemy.
+     */
+    default void update(Enemy target) {
+    }
+
+    /**
+     * Notifies the gun about the passing of a turn, such that it may drop waves which are not going to be resolved.
+     * @param turn The current turn.
+     * @param range The range, i.e. the diagonal of the battlefield.
+     */
+    default void expire(long turn, double range) {
+    }
+}
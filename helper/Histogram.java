@@ -0,0 +1,73 @@
+package eureka.helper;
+
+/**
+ * A histogram of durations with fixed, logarithmic buckets, i.e. bucket k counts durations below 2^k nanoseconds.
+ */
+public class Histogram {
+
+    /**
+     * The number of buckets, the last one collects all longer durations.
+     */
+    public final static int BUCKETS = 32;
+
+    private final long[] m_buckets;
+    private long m_count, m_sum, m_max;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public Histogram() {
+        this.m_buckets = new long[BUCKETS];
+    }
+
+    /**
+     * Adds a duration.
+     * @param nanoseconds The duration.
+     */
+    public void add(final long nanoseconds) {
+        final long value = Math.max(0, nanoseconds);
+        this.m_buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value))]++;
+        this.m_count++;
+        this.m_sum += value;
+        this.m_max = Math.max(this.m_max, value);
+    }
+
+    /**
+     * Returns the number of durations.
+     * @return the number of durations.
+     */
+    public long getCount() {
+        return this.m_count;
+    }
+
+    /**
+     * Returns the sum of all durations.
+     * @return the sum in nanoseconds.
+     */
+    public long getSum() {
+        return this.m_sum;
+    }
+
+    /**
+     * Returns the longest duration.
+     * @return the maximum in nanoseconds.
+     */
+    public long getMax() {
+        return this.m_max;
+    }
+
+    /**
+     * Returns the compact representation: count, sum, maximum and the non-empty buckets as 'index:count'.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder().append(this.m_count).append(' ').append(this.m_sum).append(' ')
+                .append(this.m_max);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (this.m_buckets[i] > 0) {
+                result.append(' ').append(i).append(':').append(this.m_buckets[i]);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package eureka.helper;
+
+import java.awt.geom.Point2D;
+
+import eureka.Eureka;
+
+/**
+ * Solves the tick in which a bullet meets an enemy on its predicted path. The flight time is improved iteratively
+ * until it changes less than the accuracy, starting from the solution of the previous tick if there is one.
+ */
+public class InterceptSolver {
+    private final long m_tickRange;
+    private final int m_iterations;
+    private final double m_accuracy;
+    private double m_x, m_y;
+
+    /**
+     * Creates a solver.
+     * @param tickRange The number of ticks a former solution of an enemy is used as start.
+     * @param iterations The maximal number of iterations.
+     * @param accuracy The change of the flight time in ticks, below which the solution is accepted.
+     */
+    public InterceptSolver(final long tickRange, final int iterations, final double accuracy) {
+        this.m_tickRange = tickRange;
+        this.m_iterations = iterations;
+        this.m_accuracy = accuracy;
+    }
+
+    /**
+     * Solves the intercept of a bullet fired in this tick. The point is accessible by 'getX' and 'getY' afterwards.
+     * @param eureka The robot.
+     * @param target The enemy.
+     * @param bulletSpeed The speed of the bullet.
+     * @return the flight time of the bullet in ticks.
+     */
+    public double solve(final Eureka eureka, final Enemy target, final double bulletSpeed) {
+        final long turn = eureka.getTime();
+        final double ownX = eureka.getX(), ownY = eureka.getY();
+        final double minX = VirtualGuns.ROBOT_RADIUS, maxX = eureka.getBattleFieldWidth() - VirtualGuns.ROBOT_RADIUS;
+        final double minY = VirtualGuns.ROBOT_RADIUS, maxY = eureka.getBattleFieldHeight() - VirtualGuns.ROBOT_RADIUS;
+
+        // Start with the recent solution or the current distance
+        double time = target.getInterceptTurn() >= turn - this.m_tickRange && target.getInterceptTurn() <= turn
+                ? target.getInterceptTime()
+                : target.lastContact().distance(ownX, ownY) / bulletSpeed;
+        this.m_x = target.lastContact().getX();
+        this.m_y = target.lastContact().getY();
+
+        // Read the path from the cache of the eye, if the enemy is current
+        final PredictionCache predictions = eureka.getEye().getPredictions();
+        final int index = predictions.indexOf(target);
+        final double offset = turn - predictions.getTurn();
+
+        for (int i = 0; i < this.m_iterations; i++) {
+            if (index >= 0) {
+                this.m_x = predictions.getX(index, offset + time);
+                this.m_y = predictions.getY(index, offset + time);
+            } else {
+                final Point2D.Double position = target.predictPosition(turn + time);
+                this.m_x = Math.max(minX, Math.min(maxX, position.getX()));
+                this.m_y = Math.max(minY, Math.min(maxY, position.getY()));
+            }
+
+            final double next = Math.hypot(this.m_x - ownX, this.m_y - ownY) / bulletSpeed;
+            final boolean converged = Math.abs(next - time) < this.m_accuracy;
+            time = next;
+            if (converged) {
+                break;
+            }
+        }
+
+        target.setIntercept(turn, time);
+        return time;
+    }
+
+    /**
+     * Returns the x coordinate of the last solution.
+     * @return the x coordinate.
+     */
+    public double getX() {
+        return this.m_x;
+    }
+
+    /**
+     * Returns the y coordinate of the last solution.
+     * @return the y coordinate.
+     */
+    public double getY() {
+        return this.m_y;
+    }
+}
@@ -0,0 +1,273 @@
+package eureka.helper;
+
+import java.util.Arrays;
+
+/**
+ * A bounded KD-tree of points with a value each, built incrementally and searched for the nearest neighbours.
+ * If the capacity is reached, the oldest point is deleted lazily: It stays a node of the tree but is skipped by the
+ * search. Once the deleted nodes fill the storage, the tree is rebuilt balanced from the remaining points, such that
+ * inserts and searches stay logarithmic on average without allocation in between.
+ */
+public class KdTree {
+    private final int m_dimensions, m_capacity;
+
+    // The nodes, stored in the order of insertion
+    private double[] m_coordinates, m_values;
+    private int[] m_left, m_right;
+    private boolean[] m_deleted;
+    private int m_nodes, m_root, m_oldest, m_size;
+
+    // The buffers of a search and of a rebuild
+    private final int[] m_found;
+    private final double[] m_foundDistances;
+    private int m_foundCount;
+    private int[] m_order;
+
+    /**
+     * Creates an empty tree.
+     * @param dimensions The number of coordinates of each point.
+     * @param capacity The maximal number of points, before the oldest ones are deleted.
+     * @param neighbours The maximal number of neighbours searched at once.
+     */
+    public KdTree(final int dimensions, final int capacity, final int neighbours) {
+        if (dimensions < 1 || capacity < 1 || neighbours < 1) {
+            throw new IllegalArgumentException("Invalid size");
+        }
+
+        this.m_dimensions = dimensions;
+        this.m_capacity = capacity;
+        this.m_coordinates = new double[2 * capacity * dimensions];
+        this.m_values = new double[2 * capacity];
+        this.m_left = new int[2 * capacity];
+        this.m_right = new int[2 * capacity];
+        this.m_deleted = new boolean[2 * capacity];
+        this.m_order = new int[2 * capacity];
+        this.m_found = new int[neighbours];
+        this.m_foundDistances = new double[neighbours];
+        this.clear();
+    }
+
+    /**
+     * Removes all points.
+     */
+    public void clear() {
+        this.m_nodes = 0;
+        this.m_root = -1;
+        this.m_oldest = 0;
+        this.m_size = 0;
+    }
+
+    /**
+     * Returns the number of points.
+     * @return the number of points, at most the capacity.
+     */
+    public int size() {
+        return this.m_size;
+    }
+
+    /**
+     * Returns the memory used by the buffers of the tree.
+     * @return the estimated number of bytes.
+     */
+    public long getFootprint() {
+        return (long) (this.m_coordinates.length + this.m_values.length + this.m_foundDistances.length) * Double.BYTES
+                + (long) (this.m_left.length + this.m_right.length + this.m_order.length + this.m_found.length)
+                        * Integer.BYTES
+                + this.m_deleted.length;
+    }
+
+    /**
+     * Inserts a point, deleting the oldest one if the capacity is reached.
+     * @param point The coordinates of the point.
+     * @param value The value of the point.
+     */
+    public void add(final double[] point, final double value) {
+        if (this.m_size == this.m_capacity) {
+            this.m_deleted[this.m_oldest++] = true;
+            this.m_size--;
+        }
+        if (this.m_nodes == this.m_values.length) {
+            this.rebuild();
+        }
+
+        // Store the node ...
+        final int node = this.m_nodes++;
+        System.arraycopy(point, 0, this.m_coordinates, node * this.m_dimensions, this.m_dimensions);
+        this.m_values[node] = value;
+        this.m_left[node] = -1;
+        this.m_right[node] = -1;
+        this.m_deleted[node] = false;
+        this.m_size++;
+
+        // ... and link it as leaf.
+        if (this.m_root < 0) {
+            this.m_root = node;
+            return;
+        }
+        int parent = this.m_root, depth = 0;
+        while (true) {
+            final int axis = depth++ % this.m_dimensions;
+            final boolean left = point[axis] < this.m_coordinates[parent * this.m_dimensions + axis];
+            final int child = left ? this.m_left[parent] : this.m_right[parent];
+            if (child < 0) {
+                if (left) {
+                    this.m_left[parent] = node;
+                } else {
+                    this.m_right[parent] = node;
+                }
+                return;
+            }
+            parent = child;
+        }
+    }
+
+    /**
+     * Searches the nearest points. They are accessible by 'getValue' and 'getDistance' afterwards.
+     * @param point The coordinates of the point searched.
+     * @param neighbours The number of neighbours, at most the number given on creation.
+     * @return the number of points found.
+     */
+    public int search(final double[] point, final int neighbours) {
+        this.m_foundCount = 0;
+        if (this.m_root >= 0) {
+            this.search(this.m_root, 0, point, Math.min(neighbours, this.m_found.length));
+        }
+        return this.m_foundCount;
+    }
+
+    /**
+     * Returns the value of a point found in the last search.
+     * @param i The index of the result, sorted by distance.
+     * @return the value.
+     */
+    public double getValue(final int i) {
+        return this.m_values[this.m_found[i]];
+    }
+
+    /**
+     * Returns the distance of a point found in the last search.
+     * @param i The index of the result, sorted by distance.
+     * @return the euclidean distance.
+     */
+    public double getDistance(final int i) {
+        return Math.sqrt(this.m_foundDistances[i]);
+    }
+
+    /**
+     * Searches a subtree recursively.
+     */
+    private void search(final int node, final int depth, final double[] point, final int neighbours) {
+        final int axis = depth % this.m_dimensions;
+        final double difference = point[axis] - this.m_coordinates[node * this.m_dimensions + axis];
+        final int near = difference < 0 ? this.m_left[node] : this.m_right[node];
+        final int far = difference < 0 ? this.m_right[node] : this.m_left[node];
+
+        if (near >= 0) {
+            this.search(near, depth + 1, point, neighbours);
+        }
+        if (!this.m_deleted[node]) {
+            this.offer(node, this.distanceSq(node, point), neighbours);
+        }
+        if (far >= 0 && (this.m_foundCount < neighbours
+                || difference * difference < this.m_foundDistances[this.m_foundCount - 1])) {
+            this.search(far, depth + 1, point, neighbours);
+        }
+    }
+
+    /**
+     * Inserts a node into the sorted results, if it is near enough.
+     */
+    private void offer(final int node, final double distanceSq, final int neighbours) {
+        if (this.m_foundCount == neighbours && distanceSq >= this.m_foundDistances[neighbours - 1]) {
+            return;
+        }
+
+        int i = this.m_foundCount < neighbours ? this.m_foundCount++ : neighbours - 1;
+        while (i > 0 && this.m_foundDistances[i - 1] > distanceSq) {
+            this.m_found[i] = this.m_found[i - 1];
+            this.m_foundDistances[i] = this.m_foundDistances[i - 1];
+            i--;
+        }
+        this.m_found[i] = node;
+        this.m_foundDistances[i] = distanceSq;
+    }
+
+    private double distanceSq(final int node, final double[] point) {
+        double result = 0;
+        for (int d = 0, offset = node * this.m_dimensions; d < this.m_dimensions; d++) {
+            final double difference = point[d] - this.m_coordinates[offset + d];
+            result += difference * difference;
+        }
+        return result;
+    }
+
+    /**
+     * Moves the points left to the beginning of the storage, keeping their order, and builds a balanced tree of them.
+     */
+    private void rebuild() {
+        int count = 0;
+        for (int node = this.m_oldest; node < this.m_nodes; node++) {
+            if (!this.m_deleted[node]) {
+                System.arraycopy(this.m_coordinates, node * this.m_dimensions, this.m_coordinates,
+                        count * this.m_dimensions, this.m_dimensions);
+                this.m_values[count] = this.m_values[node];
+                this.m_deleted[count] = false;
+                this.m_order[count] = count;
+                count++;
+            }
+        }
+        Arrays.fill(this.m_deleted, count, this.m_deleted.length, false);
+
+        this.m_nodes = count;
+        this.m_oldest = 0;
+        this.m_size = count;
+        this.m_root = this.build(0, count, 0);
+    }
+
+    /**
+     * Builds a balanced subtree of the nodes in a range of the order by splitting at the median.
+     * @return the root of the subtree or -1, if the range is empty.
+     */
+    private int build(final int from, final int to, final int depth) {
+        if (from >= to) {
+            return -1;
+        }
+
+        final int axis = depth % this.m_dimensions, median = (from + to) >>> 1;
+        this.select(from, to - 1, median, axis);
+        final int node = this.m_order[median];
+        this.m_left[node] = this.build(from, median, depth + 1);
+        this.m_right[node] = this.build(median + 1, to, depth + 1);
+        return node;
+    }
+
+    /**
+     * Partially sorts a range of the order, such that the k-th node is at its place by an axis (quickselect).
+     */
+    private void select(int from, int to, final int k, final int axis) {
+        while (from < to) {
+            final double pivot = this.m_coordinates[this.m_order[(from + to) >>> 1] * this.m_dimensions + axis];
+            int i = from, j = to;
+            while (i <= j) {
+                while (this.m_coordinates[this.m_order[i] * this.m_dimensions + axis] < pivot) {
+                    i++;
+                }
+                while (this.m_coordinates[this.m_order[j] * this.m_dimensions + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final int tmp = this.m_order[i];
+                    this.m_order[i++] = this.m_order[j];
+                    this.m_order[j--] = tmp;
+                }
+            }
+            if (k <= j) {
+                to = j;
+            } else if (k >= i) {
+                from = i;
+            } else {
+                return;
+            }
+        }
+    }
+}
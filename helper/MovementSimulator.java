@@ -0,0 +1,197 @@
+package eureka.helper;
+
+import robocode.Rules;
+import robocode.util.Utils;
+
+/**
+ * Simulates the movement of the robot tick by tick, following the physics of the engine: The heading turns by a rate
+ * depending on the velocity, the velocity accelerates by 1 and decelerates by 2 such that the robot stops exactly at
+ * the end of its distance, and the robot stops at the walls. The state is kept in primitive fields, so a simulation
+ * may be repeated without allocation.
+ */
+public class MovementSimulator {
+    private final double m_minX, m_maxX, m_minY, m_maxY;
+    private double m_x, m_y, m_heading, m_velocity, m_turnRemaining, m_distanceRemaining;
+    private int m_tick;
+    private boolean m_hitWall;
+
+    /**
+     * Creates a simulator.
+     * @param width The width of the battlefield.
+     * @param height The height of the battlefield.
+     */
+    public MovementSimulator(final double width, final double height) {
+        this.m_minX = VirtualGuns.ROBOT_RADIUS;
+        this.m_maxX = width - VirtualGuns.ROBOT_RADIUS;
+        this.m_minY = VirtualGuns.ROBOT_RADIUS;
+        this.m_maxY = height - VirtualGuns.ROBOT_RADIUS;
+    }
+
+    /**
+     * Returns the turn which lets the robot drive towards a point, either forwards or backwards.
+     * @param x The x coordinate of the robot.
+     * @param y The y coordinate of the robot.
+     * @param heading The heading of the robot in radians.
+     * @param targetX The x coordinate of the point.
+     * @param targetY The y coordinate of the point.
+     * @return the turn in radians within [-PI/2, PI/2].
+     */
+    public static double getTurn(final double x, final double y, final double heading, final double targetX,
+            final double targetY) {
+        final double angle = Utils.normalRelativeAngle(Math.atan2(targetX - x, targetY - y) - heading);
+        return Math.atan(Math.tan(angle));
+    }
+
+    /**
+     * Returns the distance which lets the robot drive towards a point after 'getTurn', which is negative backwards.
+     * @param x The x coordinate of the robot.
+     * @param y The y coordinate of the robot.
+     * @param heading The heading of the robot in radians.
+     * @param targetX The x coordinate of the point.
+     * @param targetY The y coordinate of the point.
+     * @return the distance.
+     */
+    public static double getDistance(final double x, final double y, final double heading, final double targetX,
+            final double targetY) {
+        return Math.hypot(targetX - x, targetY - y) * Math.cos(Math.atan2(targetX - x, targetY - y) - heading);
+    }
+
+    /**
+     * Starts a simulation of the robot driving towards a point as set by 'getTurn' and 'getDistance'.
+     * @param x The x coordinate of the robot.
+     * @param y The y coordinate of the robot.
+     * @param heading The heading of the robot in radians.
+     * @param velocity The velocity of the robot.
+     * @param targetX The x coordinate of the point.
+     * @param targetY The y coordinate of the point.
+     */
+    public void start(final double x, final double y, final double heading, final double velocity,
+            final double targetX, final double targetY) {
+        this.m_x = x;
+        this.m_y = y;
+        this.m_heading = heading;
+        this.m_velocity = velocity;
+        this.m_turnRemaining = getTurn(x, y, heading, targetX, targetY);
+        this.m_distanceRemaining = getDistance(x, y, heading, targetX, targetY);
+        this.m_tick = 0;
+        this.m_hitWall = false;
+    }
+
+    /**
+     * Simulates the next tick.
+     * @return false, if the robot already arrived, i.e. it stands still at the end of its distance.
+     */
+    public boolean step() {
+        if (this.isArrived()) {
+            return false;
+        }
+
+        // Turn by the rate of the current velocity, ...
+        final double maxTurn = Rules.getTurnRateRadians(Math.abs(this.m_velocity));
+        if (Math.abs(this.m_turnRemaining) <= maxTurn) {
+            this.m_heading += this.m_turnRemaining;
+            this.m_turnRemaining = 0;
+        } else {
+            this.m_heading += Math.signum(this.m_turnRemaining) * maxTurn;
+            this.m_turnRemaining -= Math.signum(this.m_turnRemaining) * maxTurn;
+        }
+
+        // ... change the velocity towards the remaining distance ...
+        this.m_velocity = getNewVelocity(this.m_velocity, this.m_distanceRemaining);
+        this.m_distanceRemaining -= this.m_velocity;
+        if (Math.abs(this.m_distanceRemaining) < 1e-9) {
+            this.m_distanceRemaining = 0;
+        }
+
+        // ... and move, stopping at the walls.
+        this.m_x += Math.sin(this.m_heading) * this.m_velocity;
+        this.m_y += Math.cos(this.m_heading) * this.m_velocity;
+        if (this.m_x < this.m_minX || this.m_x > this.m_maxX || this.m_y < this.m_minY || this.m_y > this.m_maxY) {
+            this.m_x = Math.max(this.m_minX, Math.min(this.m_maxX, this.m_x));
+            this.m_y = Math.max(this.m_minY, Math.min(this.m_maxY, this.m_y));
+            this.m_velocity = 0;
+            this.m_distanceRemaining = 0;
+            this.m_hitWall = true;
+        }
+
+        this.m_tick++;
+        return true;
+    }
+
+    /**
+     * Checks if the robot stands still at the end of its distance. It might still be turning.
+     * @return true, if arrived.
+     */
+    public boolean isArrived() {
+        return this.m_distanceRemaining == 0 && this.m_velocity == 0;
+    }
+
+    /**
+     * Checks if the robot hit a wall, which stops the simulation.
+     * @return true, if a wall was hit.
+     */
+    public boolean isWallHit() {
+        return this.m_hitWall;
+    }
+
+    /**
+     * Returns the number of ticks simulated.
+     * @return the number of ticks.
+     */
+    public int getTick() {
+        return this.m_tick;
+    }
+
+    /**
+     * Returns the simulated x coordinate.
+     * @return the x coordinate.
+     */
+    public double getX() {
+        return this.m_x;
+    }
+
+    /**
+     * Returns the simulated y coordinate.
+     * @return the y coordinate.
+     */
+    public double getY() {
+        return this.m_y;
+    }
+
+    /**
+     * Returns the velocity of the next tick as the engine calculates it.
+     * @param velocity The current velocity.
+     * @param distance The remaining distance, negative backwards.
+     * @return the new velocity.
+     */
+    public static double getNewVelocity(final double velocity, final double distance) {
+        if (distance < 0) {
+            return -getNewVelocity(-velocity, -distance);
+        }
+
+        final double goal = Math.min(getMaxVelocity(distance), Rules.MAX_VELOCITY);
+        if (velocity >= 0) {
+            return Math.max(velocity - Rules.DECELERATION, Math.min(goal, velocity + Rules.ACCELERATION));
+        }
+        return Math.max(velocity - Rules.ACCELERATION, Math.min(goal, velocity + getMaxDeceleration(-velocity)));
+    }
+
+    /**
+     * Returns the maximal velocity which allows to stop exactly after a distance.
+     */
+    private static double getMaxVelocity(final double distance) {
+        final double decelerationTime = Math.max(1,
+                Math.ceil((Math.sqrt((4 * 2 / Rules.DECELERATION) * distance + 1) - 1) / 2));
+        final double decelerationDistance = (decelerationTime / 2) * (decelerationTime - 1) * Rules.DECELERATION;
+        return ((decelerationTime - 1) * Rules.DECELERATION) + ((distance - decelerationDistance) / decelerationTime);
+    }
+
+    /**
+     * Returns the maximal change of the velocity towards zero, which might cross it and accelerate afterwards.
+     */
+    private static double getMaxDeceleration(final double speed) {
+        final double decelerationTime = speed / Rules.DECELERATION;
+        final double accelerationTime = 1 - decelerationTime;
+        return Math.min(1, decelerationTime) * Rules.DECELERATION + Math.max(0, accelerationTime) * Rules.ACCELERATION;
+    }
+}
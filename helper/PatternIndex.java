@@ -0,0 +1,229 @@
+package eureka.helper;
+
+/**
+ * A bounded log of movement symbols, indexed by an online suffix automaton. After each symbol, the longest suffix of
+ * the log which occurred before is known in constant time, such that its continuation might be replayed.
+ * If the capacity is reached, the older half of the log is dropped and the automaton is rebuilt from the rest.
+ * Breaks in the log, i.e. missing ticks, are marked by separators. Each one is a unique negative symbol, such that no
+ * match spans a break.
+ */
+public class PatternIndex {
+    private final int m_capacity;
+
+    // The log of symbols and the movement they stand for
+    private final int[] m_symbols;
+    private final double[] m_velocities, m_turnRates;
+    private int m_length, m_breaks;
+
+    // The states of the automaton with the length of their longest string, their suffix link and the end of their
+    // first occurrence as well as the head of their list of transitions
+    private final int[] m_stateLength, m_link, m_firstEnd, m_head;
+    private int m_states, m_last;
+
+    // The transitions, stored as linked lists
+    private final int[] m_edgeSymbol, m_edgeTarget, m_edgeNext;
+    private int m_edges;
+
+    /**
+     * Creates an empty index.
+     * @param capacity The maximal number of symbols in the log.
+     */
+    public PatternIndex(final int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity too small");
+        }
+
+        this.m_capacity = capacity;
+        this.m_symbols = new int[capacity];
+        this.m_velocities = new double[capacity];
+        this.m_turnRates = new double[capacity];
+        this.m_stateLength = new int[2 * capacity];
+        this.m_link = new int[2 * capacity];
+        this.m_firstEnd = new int[2 * capacity];
+        this.m_head = new int[2 * capacity];
+        this.m_edgeSymbol = new int[3 * capacity];
+        this.m_edgeTarget = new int[3 * capacity];
+        this.m_edgeNext = new int[3 * capacity];
+        this.clear();
+    }
+
+    /**
+     * Removes all symbols.
+     */
+    public void clear() {
+        this.m_length = 0;
+        this.m_breaks = 0;
+        this.m_edges = 0;
+        this.m_states = 0;
+        this.m_last = this.createState(0, -1);
+        this.m_link[this.m_last] = -1;
+    }
+
+    /**
+     * Appends a symbol to the log.
+     * @param symbol The symbol, a non-negative number.
+     * @param velocity The velocity it stands for.
+     * @param turnRate The turn rate it stands for.
+     */
+    public void add(final int symbol, final double velocity, final double turnRate) {
+        if (this.m_length == this.m_capacity) {
+            this.compact();
+        }
+
+        final int position = this.m_length++;
+        this.m_symbols[position] = symbol;
+        this.m_velocities[position] = velocity;
+        this.m_turnRates[position] = turnRate;
+        this.extend(symbol, position);
+    }
+
+    /**
+     * Marks a break in the log, unless it is empty or ends with a break already.
+     */
+    public void addBreak() {
+        if (this.m_length > 0 && !this.isBreak(this.m_length - 1)) {
+            this.add(-++this.m_breaks, 0, 0);
+        }
+    }
+
+    /**
+     * Checks if a position in the log is a break.
+     * @param position The position in the log.
+     * @return true, if the movement is unknown there.
+     */
+    public boolean isBreak(final int position) {
+        return this.m_symbols[position] < 0;
+    }
+
+    /**
+     * Returns the number of symbols in the log.
+     * @return the number of symbols.
+     */
+    public int size() {
+        return this.m_length;
+    }
+
+    /**
+     * Returns the memory used by the buffers of the index.
+     * @return the estimated number of bytes.
+     */
+    public long getFootprint() {
+        return (long) (this.m_velocities.length + this.m_turnRates.length) * Double.BYTES
+                + (long) (this.m_symbols.length + this.m_stateLength.length + this.m_link.length + this.m_firstEnd.length
+                        + this.m_head.length + this.m_edgeSymbol.length + this.m_edgeTarget.length
+                        + this.m_edgeNext.length) * Integer.BYTES;
+    }
+
+    /**
+     * Returns the length of the longest suffix of the log, which occurred before.
+     * @return the number of symbols matching.
+     */
+    public int getMatchLength() {
+        final int link = this.m_link[this.m_last];
+        return link >= 0 ? this.m_stateLength[link] : 0;
+    }
+
+    /**
+     * Returns the position in the log, where the first earlier occurrence of the longest matching suffix ends.
+     * @return the position of the last symbol of the occurrence or -1, if there is no match.
+     */
+    public int getMatchEnd() {
+        final int link = this.m_link[this.m_last];
+        return link > 0 ? this.m_firstEnd[link] : -1;
+    }
+
+    /**
+     * Returns the velocity logged at a position.
+     * @param position The position in the log.
+     * @return the velocity.
+     */
+    public double getVelocity(final int position) {
+        return this.m_velocities[position];
+    }
+
+    /**
+     * Returns the turn rate logged at a position.
+     * @param position The position in the log.
+     * @return the turn rate.
+     */
+    public double getTurnRate(final int position) {
+        return this.m_turnRates[position];
+    }
+
+    /**
+     * Extends the automaton by a symbol appended at a position.
+     */
+    private void extend(final int symbol, final int position) {
+        final int current = this.createState(this.m_stateLength[this.m_last] + 1, position);
+        int p = this.m_last;
+        while (p >= 0 && this.findEdge(p, symbol) < 0) {
+            this.addEdge(p, symbol, current);
+            p = this.m_link[p];
+        }
+
+        if (p < 0) {
+            this.m_link[current] = 0;
+        } else {
+            final int q = this.m_edgeTarget[this.findEdge(p, symbol)];
+            if (this.m_stateLength[p] + 1 == this.m_stateLength[q]) {
+                this.m_link[current] = q;
+            } else {
+                // Split the state by a clone, which takes the shorter strings
+                final int clone = this.createState(this.m_stateLength[p] + 1, this.m_firstEnd[q]);
+                for (int e = this.m_head[q]; e >= 0; e = this.m_edgeNext[e]) {
+                    this.addEdge(clone, this.m_edgeSymbol[e], this.m_edgeTarget[e]);
+                }
+                this.m_link[clone] = this.m_link[q];
+                for (int e; p >= 0 && this.m_edgeTarget[e = this.findEdge(p, symbol)] == q; p = this.m_link[p]) {
+                    this.m_edgeTarget[e] = clone;
+                }
+                this.m_link[q] = clone;
+                this.m_link[current] = clone;
+            }
+        }
+        this.m_last = current;
+    }
+
+    private int createState(final int length, final int firstEnd) {
+        final int state = this.m_states++;
+        this.m_stateLength[state] = length;
+        this.m_firstEnd[state] = firstEnd;
+        this.m_head[state] = -1;
+        return state;
+    }
+
+    private void addEdge(final int state, final int symbol, final int target) {
+        final int edge = this.m_edges++;
+        this.m_edgeSymbol[edge] = symbol;
+        this.m_edgeTarget[edge] = target;
+        this.m_edgeNext[edge] = this.m_head[state];
+        this.m_head[state] = edge;
+    }
+
+    private int findEdge(final int state, final int symbol) {
+        for (int e = this.m_head[state]; e >= 0; e = this.m_edgeNext[e]) {
+            if (this.m_edgeSymbol[e] == symbol) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Drops the older half of the log and rebuilds the automaton from the rest.
+     */
+    private void compact() {
+        final int keep = this.m_capacity / 2, offset = this.m_length - keep;
+        System.arraycopy(this.m_symbols, offset, this.m_symbols, 0, keep);
+        System.arraycopy(this.m_velocities, offset, this.m_velocities, 0, keep);
+        System.arraycopy(this.m_turnRates, offset, this.m_turnRates, 0, keep);
+
+        final int breaks = this.m_breaks;
+        this.clear();
+        this.m_breaks = breaks;
+        for (int i = 0; i < keep; i++) {
+            this.extend(this.m_symbols[i], i);
+        }
+        this.m_length = keep;
+    }
+}
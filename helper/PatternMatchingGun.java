@@ -0,0 +1,105 @@
+package eureka.helper;
+
+import robocode.Rules;
+import robocode.util.Utils;
+
+import eureka.Eureka;
+
+/**
+ * A gun for enemies with repetitive movement: The movement of each tick is logged as symbol of its velocity and its
+ * change of heading. On aiming, the movement which followed the longest earlier occurrence of the most recent pattern
+ * is replayed from the last position of the enemy, until the bullet would reach it.
+ */
+public class PatternMatchingGun implements Gun {
+
+    /**
+     * The maximal number of ticks logged for each enemy.
+     */
+    public final static int CAPACITY = 2000;
+
+    /**
+     * The maximal number of ticks between two contacts, which are filled by repeating the movement.
+     * Longer gaps and the start of a round are logged as a break, which no pattern spans.
+     */
+    public final static int MAX_GAP = 8;
+
+    /**
+     * The minimal length of a pattern, shorter ones are not replayed.
+     */
+    public final static int MIN_MATCH = 4;
+
+    /**
+     * The maximal number of ticks replayed.
+     */
+    public final static int MAX_TICKS = 120;
+
+    /**
+     * The number of distinct turn rates in the symbols: Each rate is rounded to a full degree.
+     */
+    private final static int TURN_RATES = 2 * (int) Rules.MAX_TURN_RATE + 1;
+
+    public double aim(final Eureka eureka, final Enemy target, final double bulletSpeed) {
+        final PatternIndex patterns = target.getModel().getPatterns(target.getName());
+        final Enemy.Contact last = target.lastContact();
+        final long elapsed = eureka.getTime() - last.getTurn();
+        final double ownX = eureka.getX(), ownY = eureka.getY();
+        final double minX = VirtualGuns.ROBOT_RADIUS, maxX = eureka.getBattleFieldWidth() - VirtualGuns.ROBOT_RADIUS;
+        final double minY = VirtualGuns.ROBOT_RADIUS, maxY = eureka.getBattleFieldHeight() - VirtualGuns.ROBOT_RADIUS;
+
+        // Replay the continuation of the match, and keep the last movement if it ends or reaches a break
+        int position = patterns.getMatchLength() >= MIN_MATCH ? patterns.getMatchEnd() + 1 : patterns.size();
+        double x = last.getX(), y = last.getY(), heading = Math.toRadians(last.getHeading());
+        double velocity = last.getVelocity(), turnRate = 0;
+        for (int t = 1; t <= MAX_TICKS; t++) {
+            if (position < patterns.size() && !patterns.isBreak(position)) {
+                velocity = patterns.getVelocity(position);
+                turnRate = patterns.getTurnRate(position);
+                position++;
+            }
+            heading += Math.toRadians(turnRate);
+            x = Math.max(minX, Math.min(maxX, x + Math.sin(heading) * velocity));
+            y = Math.max(minY, Math.min(maxY, y + Math.cos(heading) * velocity));
+            if (t > elapsed && bulletSpeed * (t - elapsed) >= Math.hypot(x - ownX, y - ownY)) {
+                break;
+            }
+        }
+        return Math.atan2(x - ownX, y - ownY);
+    }
+
+    @Override
+    public void update(final Enemy target) {
+        final Enemy.Contact last = target.lastContact(), previous = target.getContact(1);
+        final PatternIndex patterns = target.getModel().getPatterns(target.getName());
+        if (previous == null) {
+            // The first contact of a round
+            patterns.addBreak();
+            return;
+        }
+        final long gap = last.getTurn() - previous.getTurn();
+        if (gap <= 0) {
+            return;
+        } else if (gap > MAX_GAP) {
+            patterns.addBreak();
+            return;
+        }
+
+        // Log the movement for every tick since the previous contact
+        final double turnRate = Utils.normalRelativeAngleDegrees(last.getHeading() - previous.getHeading()) / gap;
+        final int symbol = PatternMatchingGun.symbolize(last.getVelocity(), turnRate);
+        for (long i = 0; i < gap; i++) {
+            patterns.add(symbol, last.getVelocity(), turnRate);
+        }
+    }
+
+    /**
+     * Returns the symbol of the movement in a tick.
+     * @param velocity The velocity, rounded to a full unit.
+     * @param turnRate The change of heading in degrees, rounded to a full degree.
+     * @return the symbol.
+     */
+    public static int symbolize(final double velocity, final double turnRate) {
+        final long v = Math.round(Math.max(-Rules.MAX_VELOCITY, Math.min(Rules.MAX_VELOCITY, velocity)));
+        final long r = Math.round(Math.max(-Rules.MAX_TURN_RATE, Math.min(Rules.MAX_TURN_RATE, turnRate)));
+        return (int) ((v + (long) Rules.MAX_VELOCITY) * TURN_RATES + r + (long) Rules.MAX_TURN_RATE);
+    }
+}
@@ -0,0 +1,189 @@
+package eureka.helper;
+
+import java.util.Arrays;
+
+import robocode.Rules;
+import robocode.util.Utils;
+
+/**
+ * The predicted paths of the enemies of a snapshot over the next ticks, stored in primitive arrays. The paths are
+ * computed once per turn by the eye, such that movement, aiming and painting read them at the cost of an array access.
+ * Each enemy is expected to keep the velocity and turn rate of its last contacts. Its direction is rotated by the turn
+ * rate per tick, so the trigonometry is computed once per enemy. An enemy reaching a wall stops there.
+ */
+public class PredictionCache {
+
+    /**
+     * The number of ticks predicted, enough for a bullet of minimal speed to cross the battlefield in most cases.
+     */
+    public final static int HORIZON = 100;
+
+    private final double m_minX, m_maxX, m_minY, m_maxY;
+    private Enemy[] m_enemies;
+    private double[] m_x, m_y;
+    private int m_size;
+    private long m_turn;
+
+    /**
+     * Creates an empty cache.
+     * @param width The width of the battlefield.
+     * @param height The height of the battlefield.
+     */
+    public PredictionCache(final double width, final double height) {
+        this.m_minX = VirtualGuns.ROBOT_RADIUS;
+        this.m_maxX = width - VirtualGuns.ROBOT_RADIUS;
+        this.m_minY = VirtualGuns.ROBOT_RADIUS;
+        this.m_maxY = height - VirtualGuns.ROBOT_RADIUS;
+        this.m_turn = -1;
+        this.ensureCapacity(8);
+    }
+
+    /**
+     * Predicts the paths of all enemies of a snapshot.
+     * @param enemies The snapshot.
+     */
+    public void update(final EnemySnapshot enemies) {
+        if (enemies.size() > this.m_enemies.length) {
+            this.ensureCapacity(Math.max(enemies.size(), this.m_enemies.length * 2));
+        }
+
+        if (enemies.size() < this.m_size) {
+            Arrays.fill(this.m_enemies, enemies.size(), this.m_size, null);
+        }
+        this.m_size = enemies.size();
+        this.m_turn = enemies.getTurn();
+        for (int i = 0; i < this.m_size; i++) {
+            this.m_enemies[i] = enemies.getEnemy(i);
+            this.predict(i);
+        }
+    }
+
+    /**
+     * Returns the turn of the first tick of the paths.
+     * @return the turn.
+     */
+    public long getTurn() {
+        return this.m_turn;
+    }
+
+    /**
+     * Returns the number of enemies.
+     * @return the number of enemies, the same as in the snapshot.
+     */
+    public int size() {
+        return this.m_size;
+    }
+
+    /**
+     * Returns the index of an enemy, which is the same as in the snapshot.
+     * @param enemy The enemy.
+     * @return the index or -1, if it is not predicted.
+     */
+    public int indexOf(final Enemy enemy) {
+        for (int i = 0; i < this.m_size; i++) {
+            if (this.m_enemies[i] == enemy) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the predicted x coordinate of an enemy.
+     * @param i The index of the enemy.
+     * @param tick The number of ticks from the turn of the cache, within [0, 'HORIZON'].
+     * @return the x coordinate.
+     */
+    public double getX(final int i, final int tick) {
+        return this.m_x[i * (HORIZON + 1) + tick];
+    }
+
+    /**
+     * Returns the predicted y coordinate of an enemy.
+     * @param i The index of the enemy.
+     * @param tick The number of ticks from the turn of the cache, within [0, 'HORIZON'].
+     * @return the y coordinate.
+     */
+    public double getY(final int i, final int tick) {
+        return this.m_y[i * (HORIZON + 1) + tick];
+    }
+
+    /**
+     * Returns the predicted x coordinate of an enemy between two ticks. Ticks beyond the horizon return its end.
+     * @param i The index of the enemy.
+     * @param ticks The number of ticks from the turn of the cache.
+     * @return the interpolated x coordinate.
+     */
+    public double getX(final int i, final double ticks) {
+        return this.interpolate(this.m_x, i, ticks);
+    }
+
+    /**
+     * Returns the predicted y coordinate of an enemy between two ticks. Ticks beyond the horizon return its end.
+     * @param i The index of the enemy.
+     * @param ticks The number of ticks from the turn of the cache.
+     * @return the interpolated y coordinate.
+     */
+    public double getY(final int i, final double ticks) {
+        return this.interpolate(this.m_y, i, ticks);
+    }
+
+    private double interpolate(final double[] values, final int i, final double ticks) {
+        final double t = Math.max(0, Math.min(HORIZON, ticks));
+        final int tick = Math.min(HORIZON - 1, (int) t), offset = i * (HORIZON + 1) + tick;
+        return values[offset] + (values[offset + 1] - values[offset]) * (t - tick);
+    }
+
+    /**
+     * Predicts the path of an enemy from its last contact, which might be some ticks old.
+     * @param i The index of the enemy.
+     */
+    private void predict(final int i) {
+        final Enemy enemy = this.m_enemies[i];
+        final Enemy.Contact last = enemy.lastContact();
+        final long start = last.getTurn();
+        double x = last.getX(), y = last.getY(), velocity = last.getVelocity();
+        final double heading = Math.toRadians(last.getHeading());
+
+        // The turn rate per tick since the contact before, limited by the rules
+        double turnRate = 0;
+        final Enemy.Contact previous = enemy.getContact(1);
+        if (previous != null && previous.getTurn() < start) {
+            final double maxTurnRate = Rules.getTurnRateRadians(Math.abs(velocity));
+            turnRate = Utils.normalRelativeAngle(heading - Math.toRadians(previous.getHeading()))
+                    / (start - previous.getTurn());
+            turnRate = Math.max(-maxTurnRate, Math.min(maxTurnRate, turnRate));
+        }
+
+        // Rotate the direction per tick instead of computing the trigonometry again
+        final double cosTurn = Math.cos(turnRate), sinTurn = Math.sin(turnRate);
+        double sin = Math.sin(heading), cos = Math.cos(heading);
+
+        final int offset = i * (HORIZON + 1);
+        for (long turn = start; turn <= this.m_turn + HORIZON; turn++) {
+            if (turn >= this.m_turn) {
+                this.m_x[offset + (int) (turn - this.m_turn)] = x;
+                this.m_y[offset + (int) (turn - this.m_turn)] = y;
+            }
+
+            final double rotatedSin = sin * cosTurn + cos * sinTurn;
+            cos = cos * cosTurn - sin * sinTurn;
+            sin = rotatedSin;
+            x += sin * velocity;
+            y += cos * velocity;
+
+            // Robots stop at the walls
+            if (x < this.m_minX || x > this.m_maxX || y < this.m_minY || y > this.m_maxY) {
+                x = Math.max(this.m_minX, Math.min(this.m_maxX, x));
+                y = Math.max(this.m_minY, Math.min(this.m_maxY, y));
+                velocity = 0;
+            }
+        }
+    }
+
+    private void ensureCapacity(final int capacity) {
+        this.m_enemies = this.m_enemies == null ? new Enemy[capacity] : Arrays.copyOf(this.m_enemies, capacity);
+        this.m_x = new double[capacity * (HORIZON + 1)];
+        this.m_y = new double[capacity * (HORIZON + 1)];
+    }
+}
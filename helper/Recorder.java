@@ -0,0 +1,282 @@
+package eureka.helper;
+
+import java.io.*;
+import java.util.HashMap;
+
+import robocode.*;
+
+/**
+ * A recorder of all incoming robocode events and the state of the robot per tick into a compact binary stream.
+ * Numbers are stored as variable-length integers; values are delta-encoded by the XOR of their bits with the
+ * previous value of the same field, such that unchanged values take a single byte. See 'Recording' for reading.
+ * If writing fails, the recording is truncated silently.
+ */
+public class Recorder {
+
+    /**
+     * The marker at the beginning of each recording.
+     */
+    final static int MAGIC = 0x45524543;
+
+    /**
+     * The tags of the records.
+     */
+    final static int TAG_NAME = 1, TAG_ROUND = 2, TAG_STATUS = 3, TAG_SCANNED = 4, TAG_HIT_ROBOT = 5, TAG_DEATH = 6,
+            TAG_CUSTOM = 7, TAG_SKIPPED = 8, TAG_ROUND_ENDED = 9, TAG_BATTLE_ENDED = 10;
+
+    /**
+     * The number of fields of the state of the robot and of a scanned enemy.
+     */
+    final static int STATUS_FIELDS = 8, SCANNED_FIELDS = 5;
+
+    private final DataOutputStream m_out;
+    private final long m_limit;
+    private final HashMap<String, Integer> m_names;
+    private final HashMap<Integer, long[]> m_scanned;
+    private final long[] m_status;
+    private long m_time;
+    private int m_round;
+    private boolean m_truncated;
+
+    /**
+     * Starts a recording.
+     * @param out The stream, which is closed by the recorder.
+     * @param limit The maximal number of bytes, i.e. the data quota. Later records are dropped.
+     * @param battleFieldWidth The width of the battlefield.
+     * @param battleFieldHeight The height of the battlefield.
+     * @param rounds The number of rounds.
+     */
+    public Recorder(final OutputStream out, final long limit, final double battleFieldWidth,
+            final double battleFieldHeight, final int rounds) throws IOException {
+        this.m_out = new DataOutputStream(new BufferedOutputStream(out));
+        this.m_limit = limit;
+        this.m_names = new HashMap<String, Integer>();
+        this.m_scanned = new HashMap<Integer, long[]>();
+        this.m_status = new long[STATUS_FIELDS];
+        this.m_round = -1;
+
+        this.m_out.writeInt(MAGIC);
+        this.m_out.writeDouble(battleFieldWidth);
+        this.m_out.writeDouble(battleFieldHeight);
+        writeNumber(this.m_out, rounds);
+    }
+
+    /**
+     * Records the state of the robot, which starts a new tick.
+     * @param status The state.
+     */
+    public void status(final RobotStatus status) {
+        try {
+            if (!this.isWritable()) {
+                return;
+            }
+
+            // A new round resets all previous values
+            if (status.getRoundNum() != this.m_round) {
+                this.m_round = status.getRoundNum();
+                this.m_time = 0;
+                java.util.Arrays.fill(this.m_status, 0);
+                this.m_scanned.clear();
+                this.m_out.writeByte(TAG_ROUND);
+                writeNumber(this.m_out, this.m_round);
+            }
+
+            this.m_out.writeByte(TAG_STATUS);
+            writeNumber(this.m_out, status.getTime() - this.m_time);
+            writeNumber(this.m_out, status.getOthers());
+            this.m_time = status.getTime();
+            this.writeDelta(this.m_status, 0, status.getX());
+            this.writeDelta(this.m_status, 1, status.getY());
+            this.writeDelta(this.m_status, 2, status.getHeading());
+            this.writeDelta(this.m_status, 3, status.getGunHeading());
+            this.writeDelta(this.m_status, 4, status.getRadarHeading());
+            this.writeDelta(this.m_status, 5, status.getVelocity());
+            this.writeDelta(this.m_status, 6, status.getEnergy());
+            this.writeDelta(this.m_status, 7, status.getGunHeat());
+        } catch (IOException ex) {
+            this.m_truncated = true;
+        }
+    }
+
+    /**
+     * Records a scanned robot.
+     * @param event The event.
+     */
+    public void scannedRobot(final ScannedRobotEvent event) {
+        try {
+            if (!this.isWritable()) {
+                return;
+            }
+
+            final int name = this.name(event.getName());
+            long[] previous = this.m_scanned.get(name);
+            if (previous == null) {
+                previous = new long[SCANNED_FIELDS];
+                this.m_scanned.put(name, previous);
+            }
+
+            this.m_out.writeByte(TAG_SCANNED);
+            writeNumber(this.m_out, name);
+            this.writeDelta(previous, 0, event.getEnergy());
+            this.writeDelta(previous, 1, event.getBearing());
+            this.writeDelta(previous, 2, event.getDistance());
+            this.writeDelta(previous, 3, event.getHeading());
+            this.writeDelta(previous, 4, event.getVelocity());
+        } catch (IOException ex) {
+            this.m_truncated = true;
+        }
+    }
+
+    /**
+     * Records a collision with another robot.
+     * @param event The event.
+     */
+    public void hitRobot(final HitRobotEvent event) {
+        try {
+            if (this.isWritable()) {
+                final int name = this.name(event.getName());
+                this.m_out.writeByte(TAG_HIT_ROBOT);
+                writeNumber(this.m_out, name);
+                this.m_out.writeDouble(event.getBearingRadians());
+                this.m_out.writeDouble(event.getEnergy());
+                this.m_out.writeBoolean(event.isMyFault());
+            }
+        } catch (IOException ex) {
+            this.m_truncated = true;
+        }
+    }
+
+    /**
+     * Records the death of another robot.
+     * @param event The event.
+     */
+    public void robotDeath(final RobotDeathEvent event) {
+        try {
+            if (this.isWritable()) {
+                final int name = this.name(event.getName());
+                this.m_out.writeByte(TAG_DEATH);
+                writeNumber(this.m_out, name);
+            }
+        } catch (IOException ex) {
+            this.m_truncated = true;
+        }
+    }
+
+    /**
+     * Records a custom event by the type of its condition.
+     * @param condition The condition.
+     */
+    public void customEvent(final Condition condition) {
+        try {
+            if (this.isWritable()) {
+                final int name = this.name(condition.getClass().getName());
+                this.m_out.writeByte(TAG_CUSTOM);
+                writeNumber(this.m_out, name);
+            }
+        } catch (IOException ex) {
+            this.m_truncated = true;
+        }
+    }
+
+    /**
+     * Records a turn skipped by the engine.
+     * @param event The event.
+     */
+    public void skippedTurn(final SkippedTurnEvent event) {
+        try {
+            if (this.isWritable()) {
+                this.m_out.writeByte(TAG_SKIPPED);
+                writeNumber(this.m_out, event.getSkippedTurn());
+            }
+        } catch (IOException ex) {
+            this.m_truncated = true;
+        }
+    }
+
+    /**
+     * Records the end of a round and flushes the recording.
+     * @param event The event.
+     */
+    public void roundEnded(final RoundEndedEvent event) {
+        try {
+            if (this.isWritable()) {
+                this.m_out.writeByte(TAG_ROUND_ENDED);
+                writeNumber(this.m_out, event.getRound());
+                writeNumber(this.m_out, event.getTurns());
+                writeNumber(this.m_out, event.getTotalTurns());
+            }
+            this.m_out.flush();
+        } catch (IOException ex) {
+            this.m_truncated = true;
+        }
+    }
+
+    /**
+     * Records the end of the battle and closes the recording.
+     */
+    public void battleEnded() {
+        try {
+            if (this.isWritable()) {
+                this.m_out.writeByte(TAG_BATTLE_ENDED);
+            }
+            this.m_out.close();
+        } catch (IOException ex) {
+            this.m_truncated = true;
+        }
+    }
+
+    /**
+     * Checks if the recording is not yet truncated due to its limit or a failure.
+     * @return true, if records are still written.
+     */
+    public boolean isWritable() {
+        // Keep space for the largest record
+        if (!this.m_truncated && this.m_out.size() + 64 > this.m_limit) {
+            this.m_truncated = true;
+        }
+        return !this.m_truncated;
+    }
+
+    /**
+     * Returns the identifier of a name, which is defined on its first usage.
+     * @param name The name.
+     * @return the identifier.
+     */
+    private int name(final String name) throws IOException {
+        Integer id = this.m_names.get(name);
+        if (id == null) {
+            id = this.m_names.size();
+            this.m_names.put(name, id);
+            this.m_out.writeByte(TAG_NAME);
+            writeNumber(this.m_out, id);
+            this.m_out.writeUTF(name);
+        }
+        return id;
+    }
+
+    /**
+     * Writes a value as the XOR of its bits with the previous value of the field.
+     * @param previous The previous values.
+     * @param field The index of the field.
+     * @param value The new value.
+     */
+    private void writeDelta(final long[] previous, final int field, final double value) throws IOException {
+        final long bits = Double.doubleToRawLongBits(value);
+        writeNumber(this.m_out, bits ^ previous[field]);
+        previous[field] = bits;
+    }
+
+    /**
+     * Writes a number as variable-length integer with 7 bits per byte. Negative numbers are zigzag-encoded.
+     * @param out The output.
+     * @param value The number.
+     */
+    static void writeNumber(final DataOutput out, final long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+}
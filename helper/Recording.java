@@ -0,0 +1,233 @@
+package eureka.helper;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A reader of the binary stream written by the 'Recorder', which reports the records to a listener.
+ */
+public class Recording implements Closeable {
+
+    /**
+     * A receiver of the recorded records.
+     */
+    public interface Listener {
+        /**
+         * Receives the start of a round.
+         * @param round The index of the round.
+         */
+        public void round(int round);
+
+        /**
+         * Receives the state of the robot at the start of a tick.
+         * @param time The current turn.
+         * @param others The number of other robots alive.
+         * @param state The state: X, Y, heading, gun heading, radar heading, velocity, energy and gun heat.
+         */
+        public void status(long time, int others, double[] state);
+
+        /**
+         * Receives a scanned robot.
+         * @param name The name of the robot.
+         * @param scanned The scan: Energy, bearing, distance, heading and velocity.
+         */
+        public void scannedRobot(String name, double[] scanned);
+
+        /**
+         * Receives a collision with another robot.
+         */
+        public void hitRobot(String name, double bearingRadians, double energy, boolean atFault);
+
+        /**
+         * Receives the death of another robot.
+         */
+        public void robotDeath(String name);
+
+        /**
+         * Receives a custom event.
+         * @param conditionType The name of the class of the condition.
+         */
+        public void customEvent(String conditionType);
+
+        /**
+         * Receives a turn skipped by the engine.
+         */
+        public void skippedTurn(long turn);
+
+        /**
+         * Receives the end of a round.
+         */
+        public void roundEnded(int round, int turns, int totalTurns);
+
+        /**
+         * Receives the end of the battle.
+         */
+        public void battleEnded();
+    }
+
+    private final DataInputStream m_in;
+    private final ArrayList<String> m_names;
+    private final HashMap<Integer, long[]> m_scanned;
+    private final long[] m_status;
+    private final double[] m_state, m_scan;
+    private final double m_battleFieldWidth, m_battleFieldHeight;
+    private final int m_rounds;
+    private long m_time;
+
+    /**
+     * Opens a recording.
+     * @param in The stream, which is closed by the recording.
+     */
+    public Recording(final InputStream in) throws IOException {
+        this.m_in = new DataInputStream(new BufferedInputStream(in));
+        this.m_names = new ArrayList<String>();
+        this.m_scanned = new HashMap<Integer, long[]>();
+        this.m_status = new long[Recorder.STATUS_FIELDS];
+        this.m_state = new double[Recorder.STATUS_FIELDS];
+        this.m_scan = new double[Recorder.SCANNED_FIELDS];
+
+        if (this.m_in.readInt() != Recorder.MAGIC) {
+            throw new IOException("Invalid recording");
+        }
+        this.m_battleFieldWidth = this.m_in.readDouble();
+        this.m_battleFieldHeight = this.m_in.readDouble();
+        this.m_rounds = (int) readNumber(this.m_in);
+    }
+
+    /**
+     * Returns the width of the battlefield.
+     * @return the width.
+     */
+    public double getBattleFieldWidth() {
+        return this.m_battleFieldWidth;
+    }
+
+    /**
+     * Returns the height of the battlefield.
+     * @return the height.
+     */
+    public double getBattleFieldHeight() {
+        return this.m_battleFieldHeight;
+    }
+
+    /**
+     * Returns the number of rounds of the battle.
+     * @return the number of rounds.
+     */
+    public int getRounds() {
+        return this.m_rounds;
+    }
+
+    /**
+     * Reads the next record and reports it. The arrays passed to the listener are reused.
+     * @param listener The listener.
+     * @return false, if the end of the recording is reached.
+     */
+    public boolean next(final Listener listener) throws IOException {
+        final int tag = this.m_in.read();
+        switch (tag) {
+        case -1:
+            return false;
+        case Recorder.TAG_NAME:
+            final int id = (int) readNumber(this.m_in);
+            if (id != this.m_names.size()) {
+                throw new IOException("Invalid name");
+            }
+            this.m_names.add(this.m_in.readUTF());
+            return this.next(listener);
+        case Recorder.TAG_ROUND:
+            this.m_time = 0;
+            java.util.Arrays.fill(this.m_status, 0);
+            this.m_scanned.clear();
+            listener.round((int) readNumber(this.m_in));
+            return true;
+        case Recorder.TAG_STATUS:
+            this.m_time += readNumber(this.m_in);
+            final int others = (int) readNumber(this.m_in);
+            for (int i = 0; i < Recorder.STATUS_FIELDS; i++) {
+                this.m_state[i] = this.readDelta(this.m_status, i);
+            }
+            listener.status(this.m_time, others, this.m_state);
+            return true;
+        case Recorder.TAG_SCANNED:
+            final int name = (int) readNumber(this.m_in);
+            long[] previous = this.m_scanned.get(name);
+            if (previous == null) {
+                previous = new long[Recorder.SCANNED_FIELDS];
+                this.m_scanned.put(name, previous);
+            }
+            for (int i = 0; i < Recorder.SCANNED_FIELDS; i++) {
+                this.m_scan[i] = this.readDelta(previous, i);
+            }
+            listener.scannedRobot(this.getName(name), this.m_scan);
+            return true;
+        case Recorder.TAG_HIT_ROBOT:
+            listener.hitRobot(this.getName((int) readNumber(this.m_in)), this.m_in.readDouble(), this.m_in.readDouble(),
+                    this.m_in.readBoolean());
+            return true;
+        case Recorder.TAG_DEATH:
+            listener.robotDeath(this.getName((int) readNumber(this.m_in)));
+            return true;
+        case Recorder.TAG_CUSTOM:
+            listener.customEvent(this.getName((int) readNumber(this.m_in)));
+            return true;
+        case Recorder.TAG_SKIPPED:
+            listener.skippedTurn(readNumber(this.m_in));
+            return true;
+        case Recorder.TAG_ROUND_ENDED:
+            listener.roundEnded((int) readNumber(this.m_in), (int) readNumber(this.m_in), (int) readNumber(this.m_in));
+            return true;
+        case Recorder.TAG_BATTLE_ENDED:
+            listener.battleEnded();
+            return true;
+        default:
+            throw new IOException("Invalid record");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.m_in.close();
+    }
+
+    /**
+     * Returns a name by its identifier.
+     * @param id The identifier.
+     * @return the name.
+     */
+    private String getName(final int id) throws IOException {
+        if (id < 0 || id >= this.m_names.size()) {
+            throw new IOException("Unknown name");
+        }
+        return this.m_names.get(id);
+    }
+
+    /**
+     * Reads a value stored as XOR of its bits with the previous value of the field.
+     * @param previous The previous values.
+     * @param field The index of the field.
+     * @return the value.
+     */
+    private double readDelta(final long[] previous, final int field) throws IOException {
+        previous[field] ^= readNumber(this.m_in);
+        return Double.longBitsToDouble(previous[field]);
+    }
+
+    /**
+     * Reads a variable-length integer.
+     * @param in The input.
+     * @return the number.
+     */
+    static long readNumber(final DataInput in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException("Invalid number");
+    }
+}
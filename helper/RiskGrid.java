@@ -0,0 +1,357 @@
+package eureka.helper;
+
+import java.util.Arrays;
+
+/**
+ * A coarse grid over the battlefield, holding the risk caused by the enemies at its nodes. The contribution of an
+ * enemy is added when it is seen and removed again when it moves, such that the grid is updated incrementally. A risk
+ * is sampled by bilinear interpolation, while enemies near the sample are corrected to their exact contribution at
+ * their predicted position. The risk of an enemy with the weight w at the vector v from it is w / |v|, accompanied by
+ * the tensor w * v * v^T / |v|^3. It rates a direction u by u^T * T * u / |u|^2, i.e. the sum of w * cos^2 / |v| over
+ * the enemies, where enemies on opposite sides add up instead of cancelling each other.
+ */
+public class RiskGrid {
+
+    /**
+     * The edge length of a cell of the grid.
+     */
+    public final static double CELL_SIZE = 40;
+
+    /**
+     * The distance up to which enemies are corrected to their exact contribution.
+     */
+    public final static double NEAR_DISTANCE = 2 * CELL_SIZE;
+
+    /**
+     * The minimal distance used at the nodes, which avoids infinite values if an enemy is located at one.
+     */
+    public final static double MIN_DISTANCE = VirtualGuns.ROBOT_RADIUS;
+
+    /**
+     * The classes of the cells in terms of the allowed area, which are constant for a battle.
+     */
+    final static byte OUTSIDE = 0, INSIDE = 1, PARTIAL = 2;
+
+    private final int m_columns, m_rows;
+    private final double m_minX, m_maxX, m_minY, m_maxY;
+    private final byte[] m_cells;
+
+    // The sums of the contributions at the nodes
+    private final double[] m_risk, m_tensorXX, m_tensorXY, m_tensorYY;
+
+    // The enemies contributing with their position and weight
+    private Enemy[] m_enemies;
+    private double[] m_x, m_y, m_weight;
+    private int m_size;
+
+    // The predicted paths of the enemies and their indices within them
+    private PredictionCache m_predictions;
+    private int[] m_predicted;
+
+    // The result of the last sample
+    private double m_sampledRisk, m_sampledXX, m_sampledXY, m_sampledYY;
+
+    /**
+     * Creates an empty grid.
+     * @param width The width of the battlefield.
+     * @param height The height of the battlefield.
+     * @param borderX The distance towards the left and right walls, within which positions are not allowed.
+     * @param borderY The distance towards the top and bottom walls, within which positions are not allowed.
+     */
+    public RiskGrid(final double width, final double height, final double borderX, final double borderY) {
+        this.m_columns = Math.max(1, (int) Math.ceil(width / CELL_SIZE));
+        this.m_rows = Math.max(1, (int) Math.ceil(height / CELL_SIZE));
+        this.m_minX = borderX;
+        this.m_maxX = width - borderX;
+        this.m_minY = borderY;
+        this.m_maxY = height - borderY;
+
+        // Classify the cells once by the allowed area
+        this.m_cells = new byte[this.m_columns * this.m_rows];
+        for (int row = 0; row < this.m_rows; row++) {
+            for (int column = 0; column < this.m_columns; column++) {
+                final double left = column * CELL_SIZE, bottom = row * CELL_SIZE;
+                final double right = left + CELL_SIZE, top = bottom + CELL_SIZE;
+                if (left >= this.m_minX && right <= this.m_maxX && bottom >= this.m_minY && top <= this.m_maxY) {
+                    this.m_cells[row * this.m_columns + column] = INSIDE;
+                } else if (right < this.m_minX || left > this.m_maxX || top < this.m_minY || bottom > this.m_maxY) {
+                    this.m_cells[row * this.m_columns + column] = OUTSIDE;
+                } else {
+                    this.m_cells[row * this.m_columns + column] = PARTIAL;
+                }
+            }
+        }
+
+        final int nodes = (this.m_columns + 1) * (this.m_rows + 1);
+        this.m_risk = new double[nodes];
+        this.m_tensorXX = new double[nodes];
+        this.m_tensorXY = new double[nodes];
+        this.m_tensorYY = new double[nodes];
+        this.m_enemies = new Enemy[8];
+        this.m_x = new double[8];
+        this.m_y = new double[8];
+        this.m_weight = new double[8];
+        this.m_predicted = new int[8];
+        this.m_size = 0;
+    }
+
+    /**
+     * Sets the contribution of an enemy, replacing its former one.
+     * @param enemy The enemy.
+     * @param x The x coordinate of the enemy.
+     * @param y The y coordinate of the enemy.
+     * @param weight The weight of the enemy.
+     */
+    public void update(final Enemy enemy, final double x, final double y, final double weight) {
+        int i = this.indexOf(enemy);
+        if (i < 0) {
+            if (this.m_size == this.m_enemies.length) {
+                final int capacity = this.m_size * 2;
+                this.m_enemies = Arrays.copyOf(this.m_enemies, capacity);
+                this.m_x = Arrays.copyOf(this.m_x, capacity);
+                this.m_y = Arrays.copyOf(this.m_y, capacity);
+                this.m_weight = Arrays.copyOf(this.m_weight, capacity);
+                this.m_predicted = Arrays.copyOf(this.m_predicted, capacity);
+            }
+            i = this.m_size++;
+            this.m_enemies[i] = enemy;
+            this.m_weight[i] = 0;
+        }
+
+        this.contribute(this.m_x[i], this.m_y[i], this.m_weight[i], x, y, weight);
+        this.m_x[i] = x;
+        this.m_y[i] = y;
+        this.m_weight[i] = weight;
+        this.m_predictions = null;
+    }
+
+    /**
+     * Removes the contribution of an enemy.
+     * @param enemy The enemy.
+     */
+    public void remove(final Enemy enemy) {
+        final int i = this.indexOf(enemy);
+        if (i < 0) {
+            return;
+        }
+
+        this.contribute(this.m_x[i], this.m_y[i], this.m_weight[i], 0, 0, 0);
+        final int last = --this.m_size;
+        this.m_enemies[i] = this.m_enemies[last];
+        this.m_x[i] = this.m_x[last];
+        this.m_y[i] = this.m_y[last];
+        this.m_weight[i] = this.m_weight[last];
+        this.m_enemies[last] = null;
+        this.m_predictions = null;
+    }
+
+    /**
+     * Links the enemies with their predicted paths, which are used by 'sample'. Changing the grid drops the link.
+     * @param predictions The predicted paths.
+     */
+    public void predict(final PredictionCache predictions) {
+        this.m_predictions = predictions;
+        for (int i = 0; i < this.m_size; i++) {
+            this.m_predicted[i] = predictions.indexOf(this.m_enemies[i]);
+        }
+    }
+
+    /**
+     * Checks if an enemy is contributing.
+     * @param enemy The enemy.
+     * @return true, if its contribution is part of the grid.
+     */
+    public boolean contains(final Enemy enemy) {
+        return this.indexOf(enemy) >= 0;
+    }
+
+    /**
+     * Returns the number of enemies contributing.
+     * @return the number of enemies.
+     */
+    public int size() {
+        return this.m_size;
+    }
+
+    /**
+     * Returns an enemy contributing.
+     * @param i The index of the enemy.
+     * @return the enemy.
+     */
+    public Enemy getEnemy(final int i) {
+        return this.m_enemies[i];
+    }
+
+    /**
+     * Checks if a position is within the allowed area. Only positions in cells crossing its border are compared.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return true, if the position is allowed.
+     */
+    public boolean isAllowed(final double x, final double y) {
+        if (x < 0 || y < 0) {
+            return false;
+        }
+        final int column = (int) (x / CELL_SIZE), row = (int) (y / CELL_SIZE);
+        if (column >= this.m_columns || row >= this.m_rows) {
+            return false;
+        }
+
+        final byte cell = this.m_cells[row * this.m_columns + column];
+        return cell == INSIDE
+                || (cell == PARTIAL && x >= this.m_minX && x <= this.m_maxX && y >= this.m_minY && y <= this.m_maxY);
+    }
+
+    /**
+     * Interpolates the risk at a position from the nodes only, which is cheaper but less accurate near the enemies.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return the interpolated risk.
+     */
+    public double interpolateRisk(final double x, final double y) {
+        final double gx = Math.max(0, Math.min(this.m_columns, x / CELL_SIZE));
+        final double gy = Math.max(0, Math.min(this.m_rows, y / CELL_SIZE));
+        final int column = Math.min(this.m_columns - 1, (int) gx), row = Math.min(this.m_rows - 1, (int) gy);
+        final double fx = gx - column, fy = gy - row;
+        final int node = row * (this.m_columns + 1) + column, above = node + this.m_columns + 1;
+        return (1 - fy) * ((1 - fx) * this.m_risk[node] + fx * this.m_risk[node + 1])
+                + fy * ((1 - fx) * this.m_risk[above] + fx * this.m_risk[above + 1]);
+    }
+
+    /**
+     * Samples the risk and the tensor at a position. Enemies near the position are corrected to their exact
+     * contribution at their predicted position, if the grid is linked by 'predict'. The results are accessible by the
+     * getters afterwards.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param tick The number of ticks from the turn of the predictions, when the position is reached.
+     */
+    public void sample(final double x, final double y, final int tick) {
+        final double gx = Math.max(0, Math.min(this.m_columns, x / CELL_SIZE));
+        final double gy = Math.max(0, Math.min(this.m_rows, y / CELL_SIZE));
+        final int column = Math.min(this.m_columns - 1, (int) gx), row = Math.min(this.m_rows - 1, (int) gy);
+        final double fx = gx - column, fy = gy - row;
+        final int node = row * (this.m_columns + 1) + column, above = node + this.m_columns + 1;
+        final double w00 = (1 - fx) * (1 - fy), w10 = fx * (1 - fy), w01 = (1 - fx) * fy, w11 = fx * fy;
+
+        this.m_sampledRisk = w00 * this.m_risk[node] + w10 * this.m_risk[node + 1] + w01 * this.m_risk[above]
+                + w11 * this.m_risk[above + 1];
+        this.m_sampledXX = w00 * this.m_tensorXX[node] + w10 * this.m_tensorXX[node + 1]
+                + w01 * this.m_tensorXX[above] + w11 * this.m_tensorXX[above + 1];
+        this.m_sampledXY = w00 * this.m_tensorXY[node] + w10 * this.m_tensorXY[node + 1]
+                + w01 * this.m_tensorXY[above] + w11 * this.m_tensorXY[above + 1];
+        this.m_sampledYY = w00 * this.m_tensorYY[node] + w10 * this.m_tensorYY[node + 1]
+                + w01 * this.m_tensorYY[above] + w11 * this.m_tensorYY[above + 1];
+
+        // Replace the interpolated contribution of enemies nearby, where it is least accurate, by the exact one
+        final int horizon = Math.max(0, Math.min(PredictionCache.HORIZON, tick));
+        for (int i = 0; i < this.m_size; i++) {
+            double enemyX = this.m_x[i], enemyY = this.m_y[i];
+            if (this.m_predictions != null && this.m_predicted[i] >= 0) {
+                enemyX = this.m_predictions.getX(this.m_predicted[i], horizon);
+                enemyY = this.m_predictions.getY(this.m_predicted[i], horizon);
+            }
+            if ((Math.abs(x - this.m_x[i]) > NEAR_DISTANCE || Math.abs(y - this.m_y[i]) > NEAR_DISTANCE)
+                    && (Math.abs(x - enemyX) > NEAR_DISTANCE || Math.abs(y - enemyY) > NEAR_DISTANCE)) {
+                continue;
+            }
+
+            this.add(x - enemyX, y - enemyY, this.m_weight[i]);
+            this.correct(i, column, row, w00, 0, 0);
+            this.correct(i, column, row, w10, 1, 0);
+            this.correct(i, column, row, w01, 0, 1);
+            this.correct(i, column, row, w11, 1, 1);
+        }
+    }
+
+    /**
+     * Returns the risk of the last sample.
+     * @return the sum of the weights of the enemies divided by their distance.
+     */
+    public double getRisk() {
+        return this.m_sampledRisk;
+    }
+
+    /**
+     * Rates a direction by the tensor of the last sample, which is high if the direction points towards or away from
+     * dangerous enemies.
+     * @param dx The x component of the direction.
+     * @param dy The y component of the direction.
+     * @return the sum of the weights of the enemies multiplied by the squared cosine towards them and divided by their
+     *         distance.
+     */
+    public double getRotation(final double dx, final double dy) {
+        final double lengthSq = dx * dx + dy * dy;
+        if (lengthSq == 0) {
+            return 0;
+        }
+        return (dx * dx * this.m_sampledXX + 2 * dx * dy * this.m_sampledXY + dy * dy * this.m_sampledYY) / lengthSq;
+    }
+
+    /**
+     * Adds the exact contribution of an enemy to the last sample.
+     */
+    private void add(final double dx, final double dy, final double weight) {
+        final double inverse = 1 / Math.sqrt(Math.max(MIN_DISTANCE * MIN_DISTANCE, dx * dx + dy * dy));
+        final double factor = weight * inverse * inverse * inverse;
+        this.m_sampledRisk += weight * inverse;
+        this.m_sampledXX += factor * dx * dx;
+        this.m_sampledXY += factor * dx * dy;
+        this.m_sampledYY += factor * dy * dy;
+    }
+
+    /**
+     * Subtracts the interpolated contribution of an enemy at a corner of the sampled cell.
+     */
+    private void correct(final int i, final int column, final int row, final double weight, final int dc,
+            final int dr) {
+        this.add((column + dc) * CELL_SIZE - this.m_x[i], (row + dr) * CELL_SIZE - this.m_y[i],
+                -weight * this.m_weight[i]);
+    }
+
+    /**
+     * Replaces the contribution of an enemy at all nodes in a single pass. A weight of zero skips its part.
+     */
+    private void contribute(final double oldX, final double oldY, final double oldWeight, final double x,
+            final double y, final double weight) {
+        final double minDistanceSq = MIN_DISTANCE * MIN_DISTANCE;
+        int node = 0;
+        for (int row = 0; row <= this.m_rows; row++) {
+            final double oldDy = row * CELL_SIZE - oldY, dy = row * CELL_SIZE - y;
+            for (int column = 0; column <= this.m_columns; column++, node++) {
+                double risk = 0, tensorXX = 0, tensorXY = 0, tensorYY = 0;
+                if (oldWeight != 0) {
+                    final double dx = column * CELL_SIZE - oldX;
+                    final double inverse = 1 / Math.sqrt(Math.max(minDistanceSq, dx * dx + oldDy * oldDy));
+                    final double factor = oldWeight * inverse * inverse * inverse;
+                    risk -= oldWeight * inverse;
+                    tensorXX -= factor * dx * dx;
+                    tensorXY -= factor * dx * oldDy;
+                    tensorYY -= factor * oldDy * oldDy;
+                }
+                if (weight != 0) {
+                    final double dx = column * CELL_SIZE - x;
+                    final double inverse = 1 / Math.sqrt(Math.max(minDistanceSq, dx * dx + dy * dy));
+                    final double factor = weight * inverse * inverse * inverse;
+                    risk += weight * inverse;
+                    tensorXX += factor * dx * dx;
+                    tensorXY += factor * dx * dy;
+                    tensorYY += factor * dy * dy;
+                }
+                this.m_risk[node] += risk;
+                this.m_tensorXX[node] += tensorXX;
+                this.m_tensorXY[node] += tensorXY;
+                this.m_tensorYY[node] += tensorYY;
+            }
+        }
+    }
+
+    private int indexOf(final Enemy enemy) {
+        for (int i = 0; i < this.m_size; i++) {
+            if (this.m_enemies[i] == enemy) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
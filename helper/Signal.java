@@ -15,7 +15,7 @@ public interface Signal {
      * An event which is fired if a custom event happens.
      */
     public static class CustomEvent implements Event {
-        private final robocode.Condition m_condition;
+        private robocode.Condition m_condition;
 
         /**
          * Creates an new custom event.
@@ -25,6 +25,16 @@ public interface Signal {
             this.m_condition = condition;
         }
 
+        /**
+         * Reuses the custom event for another condition.
+         * @param condition The condition.
+         * @return the custom event.
+         */
+        public CustomEvent reset(robocode.Condition condition) {
+            this.m_condition = condition;
+            return this;
+        }
+
         /**
          * Returns the condition of the custom event.
          * @return the condition of the custom event.
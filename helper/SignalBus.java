@@ -0,0 +1,100 @@
+package eureka.helper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A bus transmitting signals towards the listeners subscribed to their specific type.
+ * The listeners of each concrete signal type are resolved once and cached in a table afterwards, such that the
+ * dispatch is a single lookup without any locking or allocation. The bus is intended for the robot thread only.
+ */
+public class SignalBus {
+
+    /**
+     * A receiver of a specific type of signal.
+     */
+    public interface Listener<T extends Signal> {
+        /**
+         * Receives a signal.
+         * @param signal The signal.
+         */
+        public void receive(T signal);
+    }
+
+    /**
+     * The subscription of a listener for a type of signals.
+     */
+    private static class Subscription {
+        private final Class<?> m_type;
+        private final Listener<Signal> m_listener;
+
+        /**
+         * Creates a new subscription.
+         * @param type The type of the signal, including all its subtypes.
+         * @param listener The listener.
+         */
+        public Subscription(final Class<?> type, final Listener<Signal> listener) {
+            this.m_type = type;
+            this.m_listener = listener;
+        }
+    }
+
+    private final ArrayList<Subscription> m_subscriptions;
+    private final HashMap<Class<?>, Listener<Signal>[]> m_table;
+
+    /**
+     * Creates a new bus without any listeners.
+     */
+    public SignalBus() {
+        this.m_subscriptions = new ArrayList<Subscription>();
+        this.m_table = new HashMap<Class<?>, Listener<Signal>[]>();
+    }
+
+    /**
+     * Subscribes a listener for a type of signals, which includes its subtypes.
+     * Listeners are called in the order of their subscription.
+     * @param type The type of signals.
+     * @param listener The listener.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Signal> void subscribe(final Class<T> type, final Listener<? super T> listener) {
+        this.m_subscriptions.add(new Subscription(type, (Listener<Signal>) listener));
+
+        // Invalidate the table, running dispatches keep their old listeners
+        this.m_table.clear();
+    }
+
+    /**
+     * Transmits a signal to all listeners of its type.
+     * @param signal The signal.
+     */
+    public void publish(final Signal signal) {
+        Listener<Signal>[] listeners = this.m_table.get(signal.getClass());
+        if (listeners == null) {
+            listeners = this.resolve(signal.getClass());
+        }
+
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].receive(signal);
+        }
+    }
+
+    /**
+     * Collects the listeners of a concrete signal type and stores them in the table.
+     * @param type The type.
+     * @return the listeners.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Listener<Signal>[] resolve(final Class<?> type) {
+        final ArrayList<Listener<Signal>> listeners = new ArrayList<Listener<Signal>>();
+        for (Subscription subscription : this.m_subscriptions) {
+            if (subscription.m_type.isAssignableFrom(type)) {
+                listeners.add(subscription.m_listener);
+            }
+        }
+
+        final Listener<Signal>[] result = listeners.toArray(new Listener[listeners.size()]);
+        this.m_table.put(type, result);
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package eureka.helper;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * A pool of reusable signals, avoiding an allocation for signals which are sent frequently.
+ * Signals are obtained in a stack-like manner, such that nested transmissions get distinct instances.
+ */
+public class SignalPool<T extends Signal> {
+    private final ArrayList<T> m_signals;
+    private final Supplier<T> m_factory;
+    private int m_used;
+
+    /**
+     * Creates a new pool.
+     * @param factory The function creating a new signal, if all existing ones are in use.
+     */
+    public SignalPool(final Supplier<T> factory) {
+        this.m_signals = new ArrayList<T>();
+        this.m_factory = factory;
+        this.m_used = 0;
+    }
+
+    /**
+     * Returns an unused signal.
+     * @return the signal, which is to be initialized by the caller.
+     */
+    public T obtain() {
+        if (this.m_used == this.m_signals.size()) {
+            this.m_signals.add(this.m_factory.get());
+        }
+        return this.m_signals.get(this.m_used++);
+    }
+
+    /**
+     * Gives the signal obtained last back to the pool.
+     */
+    public void release() {
+        if (this.m_used == 0) {
+            throw new IllegalStateException("No signal in use");
+        }
+        this.m_used--;
+    }
+
+    /**
+     * Gives all signals back to the pool.
+     */
+    public void releaseAll() {
+        this.m_used = 0;
+    }
+}
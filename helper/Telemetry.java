@@ -0,0 +1,97 @@
+package eureka.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import robocode.RobocodeFileOutputStream;
+
+/**
+ * Timing telemetry of the robot: Histograms per component and per signal type, together with the tick statistics.
+ */
+public class Telemetry {
+
+    /**
+     * The name of the file the telemetry is written to.
+     */
+    public final static String FILENAME = "telemetry.txt";
+
+    private final TreeMap<String, Histogram> m_histograms;
+    private final HashMap<Class<?>, Histogram> m_signals;
+    private long m_ticks, m_executions, m_lost, m_skipped, m_rounds;
+
+    /**
+     * Creates empty telemetry.
+     */
+    public Telemetry() {
+        this.m_histograms = new TreeMap<String, Histogram>();
+        this.m_signals = new HashMap<Class<?>, Histogram>();
+    }
+
+    /**
+     * Returns the histogram with a specific name, which is created on first access.
+     * @param name The name, i.e. 'Component/Handler'.
+     * @return the histogram.
+     */
+    public Histogram getHistogram(final String name) {
+        Histogram histogram = this.m_histograms.get(name);
+        if (histogram == null) {
+            histogram = new Histogram();
+            this.m_histograms.put(name, histogram);
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns the histogram of the dispatch of a signal type, which is created on first access.
+     * @param type The type of the signal.
+     * @return the histogram.
+     */
+    public Histogram getHistogram(final Class<?> type) {
+        Histogram histogram = this.m_signals.get(type);
+        if (histogram == null) {
+            histogram = this.getHistogram("Signal/" + type.getName().substring(type.getName().lastIndexOf('.') + 1));
+            this.m_signals.put(type, histogram);
+        }
+        return histogram;
+    }
+
+    /**
+     * Adds the statistics of a completed round.
+     * @param statistics The tick statistics of the round.
+     */
+    public void addRound(final TickStatistics statistics) {
+        this.m_rounds++;
+        this.m_ticks += statistics.getTicks();
+        this.m_executions += statistics.getExecutions();
+        this.m_lost += statistics.getLost();
+        this.m_skipped += statistics.getSkipped();
+    }
+
+    /**
+     * Writes the telemetry in a compact, line-based format.
+     * @param out The output.
+     */
+    public void write(final PrintStream out) {
+        out.format("rounds %d ticks %d executions %d lost %d skipped %d\n", this.m_rounds, this.m_ticks,
+                this.m_executions, this.m_lost, this.m_skipped);
+        for (Map.Entry<String, Histogram> entry : this.m_histograms.entrySet()) {
+            out.format("%s %s\n", entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Saves the telemetry on the drive.
+     * @param file The file.
+     */
+    public void save(final File file) throws IOException {
+        // Guarantee closing of file by using try(closeable)
+        try (RobocodeFileOutputStream fos = new RobocodeFileOutputStream(file);
+                PrintStream out = new PrintStream(fos)) {
+            this.write(out);
+        }
+    }
+}
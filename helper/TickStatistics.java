@@ -0,0 +1,83 @@
+package eureka.helper;
+
+/**
+ * Statistics about the processed ticks of a round, allowing to verify that no tick is lost.
+ */
+public class TickStatistics {
+    private long m_lastTurn;
+    private long m_ticks;
+    private long m_executions;
+    private long m_lost;
+    private long m_skipped;
+
+    /**
+     * Creates new statistics.
+     */
+    public TickStatistics() {
+        this.m_lastTurn = -1;
+    }
+
+    /**
+     * Notes the processing of a tick.
+     * @param turn The current turn.
+     */
+    public void tick(final long turn) {
+        if (this.m_lastTurn >= 0 && turn > this.m_lastTurn + 1) {
+            this.m_lost += turn - this.m_lastTurn - 1;
+        }
+        this.m_lastTurn = turn;
+        this.m_ticks++;
+    }
+
+    /**
+     * Notes a call of 'execute'.
+     */
+    public void executed() {
+        this.m_executions++;
+    }
+
+    /**
+     * Notes a turn skipped by the engine.
+     */
+    public void skipped() {
+        this.m_skipped++;
+    }
+
+    /**
+     * Returns the number of processed ticks.
+     * @return the number of ticks.
+     */
+    public long getTicks() {
+        return this.m_ticks;
+    }
+
+    /**
+     * Returns the number of calls of 'execute'.
+     * @return the number of executions.
+     */
+    public long getExecutions() {
+        return this.m_executions;
+    }
+
+    /**
+     * Returns the number of turns between processed ticks which were never processed.
+     * @return the number of lost ticks.
+     */
+    public long getLost() {
+        return this.m_lost;
+    }
+
+    /**
+     * Returns the number of turns skipped by the engine.
+     * @return the number of skipped turns.
+     */
+    public long getSkipped() {
+        return this.m_skipped;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ticks: %d, executions: %d, lost: %d, skipped: %d", this.m_ticks, this.m_executions,
+                this.m_lost, this.m_skipped);
+    }
+}
@@ -0,0 +1,95 @@
+package eureka.helper;
+
+import java.io.PrintStream;
+
+/**
+ * A leveled trace of signals, recorded into a fixed-size ring buffer of compact records.
+ * Nothing is formatted before the trace is dumped; if the trace is disabled, a check of the level is the only cost.
+ */
+public class Trace {
+
+    /**
+     * The levels of the trace, each one including the previous ones.
+     */
+    public enum Level {
+        Off, Commands, Events, CustomEvents;
+
+        /**
+         * Returns the level for a numerical value, i.e. of a parameter.
+         * @param value The index of the level.
+         * @return the level, bounded to the existing ones.
+         */
+        public static Level fromValue(final double value) {
+            final Level[] levels = Level.values();
+            return levels[Math.max(0, Math.min(levels.length - 1, (int) value))];
+        }
+    }
+
+    /**
+     * The default number of records kept in the ring buffer.
+     */
+    public final static int CAPACITY = 256;
+
+    private final Level m_level;
+    private final long[] m_turns;
+    private final byte[] m_levels;
+    private final Class<?>[] m_subjects;
+    private int m_next;
+    private int m_size;
+
+    /**
+     * Creates a new trace.
+     * @param level The highest level which is recorded.
+     * @param capacity The number of records kept, older ones are overwritten.
+     */
+    public Trace(final Level level, final int capacity) {
+        this.m_level = level;
+        this.m_turns = new long[level != Level.Off ? capacity : 0];
+        this.m_levels = new byte[this.m_turns.length];
+        this.m_subjects = new Class<?>[this.m_turns.length];
+        this.m_next = 0;
+        this.m_size = 0;
+    }
+
+    /**
+     * Checks if records of a specific level are traced.
+     * @param level The level.
+     * @return true, if the records are traced.
+     */
+    public boolean isEnabled(final Level level) {
+        return level != Level.Off && level.ordinal() <= this.m_level.ordinal();
+    }
+
+    /**
+     * Records a signal, if its level is enabled.
+     * @param turn The current turn.
+     * @param level The level of the record.
+     * @param subject The type of the signal or condition.
+     */
+    public void record(final long turn, final Level level, final Class<?> subject) {
+        if (!this.isEnabled(level)) {
+            return;
+        }
+
+        this.m_turns[this.m_next] = turn;
+        this.m_levels[this.m_next] = (byte) level.ordinal();
+        this.m_subjects[this.m_next] = subject;
+        this.m_next = (this.m_next + 1) % this.m_turns.length;
+        this.m_size = Math.min(this.m_size + 1, this.m_turns.length);
+    }
+
+    /**
+     * Writes all records from the oldest to the newest one and clears the buffer afterwards.
+     * @param out The output.
+     */
+    public void dump(final PrintStream out) {
+        final Level[] levels = Level.values();
+        for (int i = 0, index = (this.m_next - this.m_size + this.m_turns.length) % Math.max(1, this.m_turns.length);
+                i < this.m_size; i++, index = (index + 1) % this.m_turns.length) {
+            out.format("[Trace] %d %s %s\n", this.m_turns[index], levels[this.m_levels[index]],
+                    this.m_subjects[index].getSimpleName());
+            this.m_subjects[index] = null;
+        }
+        this.m_size = 0;
+    }
+}
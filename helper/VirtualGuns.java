@@ -0,0 +1,170 @@
+package eureka.helper;
+
+import java.util.Arrays;
+
+import robocode.util.Utils;
+
+import eureka.Eureka;
+
+/**
+ * An array of guns firing virtual bullets at the same time, which are scored against the following contacts with their
+ * target. The scores are stored in the model of the enemy, such that the best gun is chosen for each enemy.
+ * The bullets are stored in parallel arrays without any allocation after the creation.
+ */
+public class VirtualGuns {
+
+    /**
+     * The maximal number of virtual bullets in flight, further ones are not fired.
+     */
+    public final static int CAPACITY = 512;
+
+    /**
+     * The distance from the center of a robot to its border.
+     */
+    public final static double ROBOT_RADIUS = 18;
+
+    private final Gun[] m_guns;
+    private final double[] m_x, m_y, m_heading, m_speed;
+    private final long[] m_turn;
+    private final int[] m_gun;
+    private final Enemy[] m_targets;
+    private int m_size;
+
+    /**
+     * Creates the array.
+     * @param guns The guns, at most 'EnemyModel.MAX_GUNS'.
+     */
+    public VirtualGuns(final Gun... guns) {
+        if (guns.length == 0 || guns.length > EnemyModel.MAX_GUNS) {
+            throw new IllegalArgumentException("Invalid number of guns");
+        }
+
+        this.m_guns = guns;
+        this.m_x = new double[CAPACITY];
+        this.m_y = new double[CAPACITY];
+        this.m_heading = new double[CAPACITY];
+        this.m_speed = new double[CAPACITY];
+        this.m_turn = new long[CAPACITY];
+        this.m_gun = new int[CAPACITY];
+        this.m_targets = new Enemy[CAPACITY];
+        this.m_size = 0;
+    }
+
+    /**
+     * Returns the best gun for an enemy.
+     * @param target The enemy.
+     * @return the gun with the highest score against the enemy.
+     */
+    public Gun select(final Enemy target) {
+        return this.m_guns[target.getModel().getBestGun(this.m_guns.length)];
+    }
+
+    /**
+     * Fires a virtual bullet of each gun at an enemy.
+     * @param eureka The robot.
+     * @param target The enemy.
+     * @param bulletSpeed The speed of the bullets.
+     * @return false, if there was no space left for the bullets.
+     */
+    public boolean fire(final Eureka eureka, final Enemy target, final double bulletSpeed) {
+        if (this.m_size + this.m_guns.length > CAPACITY) {
+            return false;
+        }
+
+        for (int g = 0; g < this.m_guns.length; g++) {
+            final int i = this.m_size++;
+            this.m_x[i] = eureka.getX();
+            this.m_y[i] = eureka.getY();
+            this.m_heading[i] = this.m_guns[g].aim(eureka, target, bulletSpeed);
+            this.m_speed[i] = bulletSpeed;
+            this.m_turn[i] = eureka.getTime();
+            this.m_gun[i] = g;
+            this.m_targets[i] = target;
+            this.m_guns[g].fire(eureka, target, bulletSpeed);
+        }
+        return true;
+    }
+
+    /**
+     * Scores the bullets at an enemy, which have reached it at its last contact, and passes the contact to the guns.
+     * @param target The enemy.
+     */
+    public void update(final Enemy target) {
+        for (Gun gun : this.m_guns) {
+            gun.update(target);
+        }
+
+        final Enemy.Contact contact = target.lastContact();
+        for (int i = this.m_size - 1; i >= 0; i--) {
+            if (this.m_targets[i] != target) {
+                continue;
+            }
+
+            // Check the bullet passed the enemy and whether it was within its width
+            final double distance = contact.distance(this.m_x[i], this.m_y[i]);
+            if (this.m_speed[i] * (contact.getTurn() - this.m_turn[i]) >= distance - ROBOT_RADIUS) {
+                final double bearing = Math.atan2(contact.getX() - this.m_x[i], contact.getY() - this.m_y[i]);
+                final boolean hit = Math.abs(Utils.normalRelativeAngle(bearing - this.m_heading[i])) <= Math
+                        .atan(ROBOT_RADIUS / Math.max(ROBOT_RADIUS, distance));
+                target.getModel().scoreGun(this.m_gun[i], hit);
+                this.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Removes the bullets, which left a range without reaching their target, and lets the guns expire their waves.
+     * @param turn The current turn.
+     * @param range The range, i.e. the diagonal of the battlefield.
+     */
+    public void expire(final long turn, final double range) {
+        for (int i = this.m_size - 1; i >= 0; i--) {
+            if (this.m_speed[i] * (turn - this.m_turn[i]) > range || turn < this.m_turn[i]) {
+                this.remove(i);
+            }
+        }
+        for (Gun gun : this.m_guns) {
+            gun.expire(turn, range);
+        }
+    }
+
+    /**
+     * Removes all bullets.
+     */
+    public void clear() {
+        Arrays.fill(this.m_targets, 0, this.m_size, null);
+        this.m_size = 0;
+    }
+
+    /**
+     * Returns the number of bullets in flight.
+     * @return the number of bullets.
+     */
+    public int size() {
+        return this.m_size;
+    }
+
+    /**
+     * Returns the number of guns.
+     * @return the number of guns.
+     */
+    public int getGunCount() {
+        return this.m_guns.length;
+    }
+
+    /**
+     * Removes a bullet by replacing it with the last one.
+     * @param i The index of the bullet.
+     */
+    private void remove(final int i) {
+        final int last = --this.m_size;
+        this.m_x[i] = this.m_x[last];
+        this.m_y[i] = this.m_y[last];
+        this.m_heading[i] = this.m_heading[last];
+        this.m_speed[i] = this.m_speed[last];
+        this.m_turn[i] = this.m_turn[last];
+        this.m_gun[i] = this.m_gun[last];
+        this.m_targets[i] = this.m_targets[last];
+        this.m_targets[last] = null;
+    }
+}